@@ -0,0 +1,120 @@
+package com.codesmith.wordsmith;
+
+import com.codesmith.wordsmith.comment.Comment;
+import com.codesmith.wordsmith.comment.CommentMapper;
+import com.codesmith.wordsmith.comment.CommentRequestDto;
+import com.codesmith.wordsmith.comment.CommentResponseDto;
+import com.codesmith.wordsmith.post.Post;
+import com.codesmith.wordsmith.post.PostMapper;
+import com.codesmith.wordsmith.post.PostRequestDto;
+import com.codesmith.wordsmith.post.PostResponseDto;
+import com.codesmith.wordsmith.user.AuthorSummaryDto;
+import com.codesmith.wordsmith.user.User;
+import com.codesmith.wordsmith.user.UserMapper;
+import com.codesmith.wordsmith.user.UserRequestDto;
+import com.codesmith.wordsmith.user.UserResponseDto;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+/**
+ * Benchmarks the conversions of {@link PostMapper}, {@link CommentMapper} and {@link UserMapper}
+ * between entities and DTOs.
+ *
+ * <p>{@code userToEntity} encodes the password with a no-op encoder, so that only the mapping is
+ * measured and not the cost of BCrypt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+  private final PostMapper postMapper = new PostMapper();
+  private final CommentMapper commentMapper = new CommentMapper();
+
+  @SuppressWarnings("deprecation")
+  private final UserMapper userMapper = new UserMapper(NoOpPasswordEncoder.getInstance());
+
+  private Post post;
+  private PostRequestDto postRequest;
+  private Comment comment;
+  private CommentRequestDto commentRequest;
+  private User user;
+  private UserRequestDto userRequest;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime now = LocalDateTime.now();
+    post = new Post(1L, "Benchmarks", "Measure before tuning. ".repeat(10), now, now, 1L, 2);
+    postRequest = new PostRequestDto(post.getTitle(), post.getContent(), 1L, 2);
+    comment = new Comment(1L, now, "Agreed.", 1L, 1L);
+    commentRequest = new CommentRequestDto(comment.getContent(), 1L, 1L);
+    userRequest =
+        new UserRequestDto(
+            "alice",
+            "Password123",
+            "alice@example.com",
+            "Alice",
+            "Smith",
+            "+1 555 0100",
+            LocalDate.of(1990, 1, 1),
+            "1 Main Street",
+            "Springfield",
+            "IL",
+            "62701",
+            "USA",
+            "USER",
+            "Writes about performance.");
+    user = userMapper.toEntity(userRequest);
+    user.setId(1L);
+  }
+
+  @Benchmark
+  public PostResponseDto postToDto() {
+    return postMapper.toDto(post);
+  }
+
+  @Benchmark
+  public Post postToEntity() {
+    return postMapper.toEntity(postRequest);
+  }
+
+  @Benchmark
+  public CommentResponseDto commentToDto() {
+    return commentMapper.toDto(comment);
+  }
+
+  @Benchmark
+  public Comment commentToEntity() {
+    return commentMapper.toEntity(commentRequest);
+  }
+
+  @Benchmark
+  public UserResponseDto userToDto() {
+    return userMapper.toDto(user);
+  }
+
+  @Benchmark
+  public AuthorSummaryDto userToAuthorSummary() {
+    return userMapper.toAuthorSummary(user);
+  }
+
+  @Benchmark
+  public User userToEntity() {
+    return userMapper.toEntity(userRequest);
+  }
+}
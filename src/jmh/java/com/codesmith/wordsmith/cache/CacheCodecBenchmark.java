@@ -0,0 +1,94 @@
+package com.codesmith.wordsmith.cache;
+
+import com.codesmith.wordsmith.post.PostResponseDto;
+import com.codesmith.wordsmith.user.AuthorSummaryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+/**
+ * Benchmarks encoding and decoding cached posts.
+ *
+ * <p>{@code redisEncode} and {@code redisDecode} run the value serializer of the Redis caches on a
+ * post wrapped in a {@link CacheEntry}, as {@link SingleFlightCache} stores it. {@code offHeapGet}
+ * reads a post from an {@link OffHeapCache}, deserializing it from the off-heap buffer, and {@code
+ * offHeapPut} writes one to it, serializing it into the buffer; the cache behind is in memory, so
+ * that only the encoding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+  private final SerializationPair<Object> serializer =
+      RedisCacheConfiguration.defaultCacheConfig().getValueSerializationPair();
+
+  private CacheEntry entry;
+  private ByteBuffer encoded;
+  private Cache offHeapCache;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime now = LocalDateTime.now();
+    PostResponseDto post =
+        new PostResponseDto(
+            1L,
+            "Benchmarks",
+            "x".repeat(255),
+            now,
+            now,
+            1L,
+            2,
+            new AuthorSummaryDto(1L, "alice", "Alice", "Smith"));
+    entry = CacheEntry.of(post, 1_000_000, Duration.ofMinutes(10));
+    encoded = serializer.write(entry);
+
+    offHeapCache =
+        new OffHeapCache(
+            new ConcurrentMapCache("post"),
+            new OffHeapStore(16 * 1024 * 1024, 4),
+            Duration.ofHours(1),
+            (cacheName, key) -> {},
+            new SimpleMeterRegistry());
+    offHeapCache.put(1L, entry);
+  }
+
+  @Benchmark
+  public ByteBuffer redisEncode() {
+    return serializer.write(entry);
+  }
+
+  @Benchmark
+  public Object redisDecode() {
+    return serializer.read(encoded.duplicate());
+  }
+
+  @Benchmark
+  public Object offHeapGet() {
+    return offHeapCache.get(1L);
+  }
+
+  @Benchmark
+  public void offHeapPut() {
+    offHeapCache.put(2L, entry);
+  }
+}
@@ -0,0 +1,87 @@
+package com.codesmith.wordsmith.post;
+
+import static com.codesmith.wordsmith.post.PageConstants.SORT_BY;
+import static com.codesmith.wordsmith.post.PageConstants.SORT_DIRECTION;
+
+import com.codesmith.wordsmith.user.AuthorSummaryDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks the in-process work of listing posts: building the page request with {@link
+ * PostService#createPageRequest}, and writing a {@link PagedResponse} of posts as JSON, with and
+ * without their authors.
+ *
+ * <p>The object mapper is configured as Spring Boot configures the one of the application, and
+ * pages are of {@code pageSize} posts of 255 characters, the longest a post can be stored with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostListingBenchmark {
+
+  @Param({"10", "50"})
+  private int pageSize;
+
+  private final ObjectMapper objectMapper =
+      Jackson2ObjectMapperBuilder.json()
+          .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+
+  private PagedResponse<PostResponseDto> page;
+  private PagedResponse<PostResponseDto> pageWithAuthors;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime now = LocalDateTime.now();
+    List<PostResponseDto> posts = new ArrayList<>(pageSize);
+    for (long id = 1; id <= pageSize; id++) {
+      posts.add(new PostResponseDto(id, "Post " + id, "x".repeat(255), now, now, id, 2, null));
+    }
+    page = new PagedResponse<>(posts, 1, pageSize, 1_000, 1_000 / pageSize, false);
+    pageWithAuthors =
+        page.withContent(
+            posts.stream()
+                .map(
+                    post ->
+                        post.withAuthor(
+                            new AuthorSummaryDto(post.userId(), "alice", "Alice", "Smith")))
+                .toList());
+  }
+
+  @Benchmark
+  public PageRequest createPageRequest() {
+    return PostService.createPageRequest(2, pageSize, SORT_BY, SORT_DIRECTION);
+  }
+
+  @Benchmark
+  public byte[] serializePage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] serializePageWithAuthors() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(pageWithAuthors);
+  }
+}
@@ -0,0 +1,139 @@
+package com.codesmith.wordsmith.security;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmarks the authentication cost {@link JwtFilter} adds to a request.
+ *
+ * <p>{@code baseline} reproduces the filter as it was before tokens were verified once: the key is
+ * decoded and a parser built for each of the three parses of the token. {@code filter} runs the
+ * current filter with its token memoization, and {@code filterUncached} the current filter with
+ * memoization disabled, i.e. the cost of the first request made with a token. The user lookup is
+ * served from memory in all three so that only the token handling is compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+  private static final String SECRET =
+      "O6w/Jf2iRtJ1duikwc/oFCnfkU5UZ2edU7+2yIlip6JU32/D0lv+LbKZ3BYT8c4TR9wd57j78oGo0YFhP/ykng==";
+
+  private final FilterChain chain = (request, response) -> {};
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+  private MockHttpServletRequest request;
+  private String token;
+  private UserDetails user;
+  private JwtFilter filter;
+  private JwtFilter uncachedFilter;
+
+  @Setup
+  public void setUp() {
+    user = new AuthenticatedUser(1L, "alice", "", List.of(new SimpleGrantedAuthority("USER")));
+    JwtService jwtService = jwtService(10_000);
+    token = jwtService.generateToken(Map.of(), user);
+    filter = jwtFilter(jwtService);
+    uncachedFilter = jwtFilter(jwtService(0));
+
+    request = new MockHttpServletRequest("GET", "/api/posts/1");
+    request.setServletPath("/api/posts/1");
+    request.addHeader(AUTHORIZATION, "Bearer " + token);
+  }
+
+  @Benchmark
+  public void baseline(Blackhole blackhole) {
+    String username = legacyExtractClaim(token, Claims::getSubject);
+    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+      boolean valid =
+          legacyExtractClaim(token, Claims::getSubject).equals(user.getUsername())
+              && !legacyExtractClaim(token, Claims::getExpiration).before(new Date());
+      if (valid) {
+        SecurityContextHolder.getContext()
+            .setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+      }
+    }
+    blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public void filter(Blackhole blackhole) throws Exception {
+    run(filter, blackhole);
+  }
+
+  @Benchmark
+  public void filterUncached(Blackhole blackhole) throws Exception {
+    run(uncachedFilter, blackhole);
+  }
+
+  private void run(JwtFilter jwtFilter, Blackhole blackhole) throws Exception {
+    jwtFilter.doFilter(request, response, chain);
+    blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+    SecurityContextHolder.clearContext();
+  }
+
+  private JwtFilter jwtFilter(JwtService jwtService) {
+    PrincipalCache principalCache =
+        new PrincipalCache(username -> user, 10_000, Duration.ofMinutes(1));
+    TokenRevocationService revocationService =
+        new TokenRevocationService(
+            new StringRedisTemplate(), new RedisMessageListenerContainer(), jwtService, 100_000, 0.01);
+    return new JwtFilter(jwtService, principalCache, revocationService, new SimpleMeterRegistry());
+  }
+
+  private static JwtService jwtService(long verificationCacheSize) {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtService, "jwtExpiry", 900_000L);
+    ReflectionTestUtils.setField(jwtService, "verificationCacheSize", verificationCacheSize);
+    jwtService.init();
+    return jwtService;
+  }
+
+  private static <T> T legacyExtractClaim(String token, Function<Claims, T> resolver) {
+    Claims claims =
+        Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+            .build()
+            .parseSignedClaims(token)
+            .getPayload();
+    return resolver.apply(claims);
+  }
+}
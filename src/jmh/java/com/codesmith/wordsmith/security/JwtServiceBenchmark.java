@@ -0,0 +1,80 @@
+package com.codesmith.wordsmith.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmarks issuing and verifying tokens with {@link JwtService}.
+ *
+ * <p>{@code verify} verifies a token already seen, as for every request of a client but its first
+ * one, and {@code verifyUncached} a token never seen before, with signature verification and claim
+ * parsing. Its service evicts every verified token right away, on the calling thread: Caffeine
+ * would otherwise evict asynchronously, and serve some verifications from the cache meanwhile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+  private static final String SECRET =
+      "O6w/Jf2iRtJ1duikwc/oFCnfkU5UZ2edU7+2yIlip6JU32/D0lv+LbKZ3BYT8c4TR9wd57j78oGo0YFhP/ykng==";
+
+  private UserDetails user;
+  private String token;
+  private JwtService jwtService;
+  private JwtService uncachedJwtService;
+
+  @Setup
+  public void setUp() {
+    user = new AuthenticatedUser(1L, "alice", "", List.of(new SimpleGrantedAuthority("USER")));
+    jwtService = jwtService(10_000);
+    uncachedJwtService = jwtService(0);
+    ReflectionTestUtils.setField(
+        uncachedJwtService,
+        "verifiedTokens",
+        Caffeine.newBuilder().maximumSize(0).executor(Runnable::run).build());
+    token = jwtService.generateToken(Map.of(), user);
+  }
+
+  @Benchmark
+  public String generate() {
+    return jwtService.generateToken(Map.of(), user);
+  }
+
+  @Benchmark
+  public VerifiedToken verify() {
+    return jwtService.verify(token);
+  }
+
+  @Benchmark
+  public VerifiedToken verifyUncached() {
+    return uncachedJwtService.verify(token);
+  }
+
+  private static JwtService jwtService(long verificationCacheSize) {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtService, "jwtExpiry", 900_000L);
+    ReflectionTestUtils.setField(jwtService, "verificationCacheSize", verificationCacheSize);
+    jwtService.init();
+    return jwtService;
+  }
+}
@@ -0,0 +1,33 @@
+package com.codesmith.wordsmith;
+
+import com.codesmith.wordsmith.load.LoadDataGenerator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Starts the application for load tests, with the {@code load-test} and {@code test} profiles and
+ * the {@link LoadDataGenerator}.
+ *
+ * <p>Postgres and Redis run in containers, as for {@link TestApplication}. Pass {@code
+ * --no-containers} to use the services configured as usual instead: those of {@code compose.yaml},
+ * or those given by {@code DB_URL} and {@code REDIS_HOST} with {@code
+ * --spring.docker.compose.enabled=false}.
+ */
+public class LoadTestApplication {
+
+  public static void main(String[] args) {
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    boolean containers = !arguments.remove("--no-containers");
+    arguments.add(0, "--spring.profiles.include=load-test,test");
+
+    SpringApplication.Augmented application =
+        SpringApplication.from(Application::main).with(LoadDataGenerator.class);
+    if (containers) {
+      application = application.with(TestContainersConfiguration.class);
+      arguments.add(0, "--spring.docker.compose.enabled=false");
+    }
+    application.run(arguments.toArray(String[]::new));
+  }
+}
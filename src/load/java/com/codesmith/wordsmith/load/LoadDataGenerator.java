@@ -0,0 +1,218 @@
+package com.codesmith.wordsmith.load;
+
+import com.codesmith.wordsmith.category.CategorySnapshot;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the database with synthetic users, categories, posts and comments for load tests.
+ *
+ * <p>The volumes are set by the {@code load-test.data.*} properties. Activity is skewed as on a
+ * real blog, with {@link ZipfDistribution}s: a few users write most of the posts, a few categories
+ * hold most of them, and a handful of posts, the newest being the most likely, get most of the
+ * comments. {@link LoadDriver} reads the posts with the same skew.
+ *
+ * <p>Rows are inserted in JDBC batches, bypassing the services and the caches, and every user gets
+ * the password {@value #PASSWORD}. The data is generated once, before the caches are warmed up;
+ * nothing is done if the users already exist.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "load-test.data.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadDataGenerator implements ApplicationRunner {
+
+  static final String USERNAME_PREFIX = "load-user-";
+  static final String PASSWORD = "Password123";
+  static final String[] WORDS = {
+    "java", "spring", "cache", "redis", "postgres", "latency", "thread", "query", "index", "heap",
+    "garbage", "collector", "virtual", "pool", "lock", "batch", "stream", "json", "token", "filter",
+    "profile", "benchmark", "tuning", "memory", "network", "disk", "cloud", "container", "deploy",
+    "scale"
+  };
+
+  private static final String CATEGORY_PREFIX = "Load category ";
+  private static final int BATCH_SIZE = 1_000;
+  private static final Duration HISTORY = Duration.ofDays(365);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PasswordEncoder passwordEncoder;
+  private final CategorySnapshot categorySnapshot;
+  private final int users;
+  private final int categories;
+  private final int posts;
+  private final int comments;
+  private final double skew;
+  private final long seed;
+
+  public LoadDataGenerator(
+      JdbcTemplate jdbcTemplate,
+      PasswordEncoder passwordEncoder,
+      CategorySnapshot categorySnapshot,
+      @Value("${load-test.data.users:1000}") int users,
+      @Value("${load-test.data.categories:20}") int categories,
+      @Value("${load-test.data.posts:20000}") int posts,
+      @Value("${load-test.data.comments:100000}") int comments,
+      @Value("${load-test.data.skew:1.1}") double skew,
+      @Value("${load-test.data.seed:42}") long seed) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.passwordEncoder = passwordEncoder;
+    this.categorySnapshot = categorySnapshot;
+    this.users = users;
+    this.categories = categories;
+    this.posts = posts;
+    this.comments = comments;
+    this.skew = skew;
+    this.seed = seed;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    Integer existing =
+        jdbcTemplate.queryForObject(
+            "select count(*) from users where username = ?", Integer.class, USERNAME_PREFIX + 1);
+    if (existing != null && existing > 0) {
+      log.info("Load test data already generated, skipping it");
+      return;
+    }
+    long start = System.nanoTime();
+    Random random = new Random(seed);
+    LocalDateTime now = LocalDateTime.now();
+
+    List<Long> userIds = insertUsers(now);
+    List<Integer> categoryIds = insertCategories();
+    List<Long> postIds = insertPosts(random, now, userIds, categoryIds);
+    insertComments(random, now, userIds, postIds);
+    categorySnapshot.reload();
+
+    log.info(
+        "Generated {} users, {} categories, {} posts and {} comments in {} ms",
+        userIds.size(),
+        categoryIds.size(),
+        postIds.size(),
+        comments,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private List<Long> insertUsers(LocalDateTime now) {
+    // Hashing is what makes a password costly to check, and a single hash serves every user
+    String password = passwordEncoder.encode(PASSWORD);
+    insert(
+        "insert into users (username, email, password, first_name, last_name, role, bio,"
+            + " created_at, updated_at) values (?, ?, ?, ?, ?, 'USER', ?, ?, ?)",
+        users,
+        i -> {
+          String username = USERNAME_PREFIX + (i + 1);
+          return new Object[] {
+            username,
+            username + "@example.com",
+            password,
+            "Load",
+            "User " + (i + 1),
+            "Synthetic user generated for load tests.",
+            now,
+            now
+          };
+        });
+    return jdbcTemplate.queryForList(
+        "select id from users where username like ? order by id",
+        Long.class,
+        USERNAME_PREFIX + "%");
+  }
+
+  private List<Integer> insertCategories() {
+    insert(
+        "insert into categories (title, description) values (?, ?)",
+        categories,
+        i -> new Object[] {CATEGORY_PREFIX + (i + 1), "Posts about " + WORDS[i % WORDS.length]});
+    return jdbcTemplate.queryForList(
+        "select id from categories where title like ? order by id",
+        Integer.class,
+        CATEGORY_PREFIX + "%");
+  }
+
+  /** Inserts the posts oldest first, spread over the last year, authors following a power law. */
+  private List<Long> insertPosts(
+      Random random, LocalDateTime now, List<Long> userIds, List<Integer> categoryIds) {
+    ZipfDistribution authors = new ZipfDistribution(userIds.size(), skew);
+    ZipfDistribution topics = new ZipfDistribution(categoryIds.size(), skew);
+    long spacing = HISTORY.toSeconds() / Math.max(posts, 1);
+    insert(
+        "insert into posts (title, content, created_at, updated_at, user_id, category_id)"
+            + " values (?, ?, ?, ?, ?, ?)",
+        posts,
+        i -> {
+          LocalDateTime createdAt = now.minusSeconds((posts - i) * spacing);
+          return new Object[] {
+            "Notes on " + words(random, 3, 40),
+            words(random, 40, 255),
+            createdAt,
+            createdAt,
+            userIds.get(authors.sample(random)),
+            categoryIds.get(topics.sample(random))
+          };
+        });
+    return jdbcTemplate.queryForList(
+        "select id from posts where user_id >= ? order by id", Long.class, userIds.get(0));
+  }
+
+  /** Inserts the comments, the newest posts being the most commented. */
+  private void insertComments(
+      Random random, LocalDateTime now, List<Long> userIds, List<Long> postIds) {
+    ZipfDistribution commenters = new ZipfDistribution(userIds.size(), skew);
+    ZipfDistribution virality = new ZipfDistribution(postIds.size(), skew);
+    insert(
+        "insert into comments (content, created_at, user_id, post_id) values (?, ?, ?, ?)",
+        comments,
+        i ->
+            new Object[] {
+              words(random, 5, 200),
+              now.minusSeconds(random.nextInt(86_400)),
+              userIds.get(commenters.sample(random)),
+              postIds.get(postIds.size() - 1 - virality.sample(random))
+            });
+  }
+
+  private void insert(String sql, int count, IntFunction<Object[]> row) {
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < count; i++) {
+      batch.add(row.apply(i));
+      if (batch.size() == BATCH_SIZE || i == count - 1) {
+        jdbcTemplate.batchUpdate(sql, batch);
+        batch.clear();
+      }
+    }
+  }
+
+  /** Returns random words, from {@code minWords} of them up to {@code maxLength} characters. */
+  private static String words(Random random, int minWords, int maxLength) {
+    StringBuilder text = new StringBuilder(maxLength);
+    int count = minWords + random.nextInt(minWords + 1);
+    for (int i = 0; i < count; i++) {
+      String word = WORDS[random.nextInt(WORDS.length)];
+      if (text.length() + word.length() + 1 > maxLength) {
+        break;
+      }
+      if (!text.isEmpty()) {
+        text.append(' ');
+      }
+      text.append(word);
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,465 @@
+package com.codesmith.wordsmith.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Replays a weighted mix of requests against a running instance and reports its throughput and
+ * latency.
+ *
+ * <p>The driver logs in as the users of the {@link LoadDataGenerator}, then runs {@code
+ * concurrency} workers in a closed loop for {@code warm-up} plus {@code duration}: each worker
+ * picks an operation according to the weights of the {@code mix}, sends it and waits for the
+ * response before sending the next. Posts are picked with the skew of the generated comments, the
+ * newest being the most read. Latencies are only recorded after the warm-up, and reported per
+ * operation at the 50th, 99th and 99.9th percentiles; a closed loop does not measure the time
+ * requests would have waited to be sent, so compare runs of the same concurrency.
+ *
+ * <p>Options are given as {@code name=value} arguments:
+ *
+ * <ul>
+ *   <li>{@code base-url}, of the instance under test, {@code http://localhost:8080} by default;
+ *   <li>{@code users}, the number of generated users to log in as, 50 by default;
+ *   <li>{@code concurrency}, the number of workers, 32 by default;
+ *   <li>{@code warm-up} and {@code duration}, as ISO-8601 durations or seconds, 10 and 60 s;
+ *   <li>{@code mix}, weights overriding the default ones, such as {@code get-post:80,refresh:0};
+ *   <li>{@code skew}, the exponent of the popularity of posts, 1.1 by default;
+ *   <li>{@code report}, a file to write the results to as JSON, for comparison between runs.
+ * </ul>
+ */
+public final class LoadDriver {
+
+  private static final long HIGHEST_LATENCY = Duration.ofMinutes(1).toNanos() / 1_000;
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+  private final HttpClient client =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(5))
+          .build();
+  private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+  private final String baseUrl;
+  private final int users;
+  private final int concurrency;
+  private final Duration warmUp;
+  private final Duration duration;
+  private final double skew;
+  private final Map<Operation, Integer> mix;
+  private final String report;
+
+  private List<Session> sessions;
+  private List<Integer> categoryIds;
+  private long minPostId;
+  private ZipfDistribution posts;
+  private volatile boolean recording;
+
+  /** Operations of the mix, with their default weights. */
+  enum Operation {
+    GET_POST("get-post", 40),
+    LIST_POSTS("list-posts", 12),
+    CATEGORY_POSTS("category-posts", 5),
+    POSTS_BY_IDS("posts-by-ids", 5),
+    SEARCH_POSTS("search-posts", 2),
+    CREATE_POST("create-post", 3),
+    POST_COMMENTS("post-comments", 15),
+    CREATE_COMMENT("create-comment", 5),
+    AUTHENTICATE("authenticate", 3),
+    REFRESH("refresh", 10);
+
+    private final String label;
+    private final int weight;
+
+    Operation(String label, int weight) {
+      this.label = label;
+      this.weight = weight;
+    }
+  }
+
+  private LoadDriver(Map<String, String> options) {
+    baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+    users = Integer.parseInt(options.getOrDefault("users", "50"));
+    concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+    warmUp = duration(options.getOrDefault("warm-up", "10"));
+    duration = duration(options.getOrDefault("duration", "60"));
+    skew = Double.parseDouble(options.getOrDefault("skew", "1.1"));
+    report = options.get("report");
+    mix = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      mix.put(operation, operation.weight);
+      stats.put(operation, new Stats());
+    }
+    if (options.containsKey("mix")) {
+      for (String weight : options.get("mix").split(",")) {
+        String[] parts = weight.split(":");
+        mix.put(operation(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Expected an option as name=value: " + arg);
+      }
+      options.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    new LoadDriver(options).run();
+  }
+
+  private void run() throws Exception {
+    System.out.printf("Logging in as %d users at %s%n", users, baseUrl);
+    sessions = new ArrayList<>(users);
+    for (int i = 1; i <= users; i++) {
+      Session session = new Session(LoadDataGenerator.USERNAME_PREFIX + i);
+      if (session.authenticate() != 200) {
+        throw new IllegalStateException(
+            "Failed to log in as " + session.username + "; was the load test data generated?");
+      }
+      sessions.add(session);
+    }
+    Session first = sessions.get(0);
+    categoryIds = new ArrayList<>();
+    for (JsonNode category : json(first, "/api/categories")) {
+      categoryIds.add(category.get("id").asInt());
+    }
+    minPostId =
+        json(first, "/api/posts?size=1&sortBy=id&direction=asc").at("/content/0/id").asLong();
+    long maxPostId =
+        json(first, "/api/posts?size=1&sortBy=id&direction=desc").at("/content/0/id").asLong();
+    posts = new ZipfDistribution((int) (maxPostId - minPostId + 1), skew);
+
+    System.out.printf(
+        "Running %d workers for %s after a warm-up of %s%n", concurrency, duration, warmUp);
+    Operation[] picks =
+        mix.entrySet().stream()
+            .flatMap(entry -> IntStream.range(0, entry.getValue()).mapToObj(i -> entry.getKey()))
+            .toArray(Operation[]::new);
+    long start = System.nanoTime();
+    long end = start + warmUp.plus(duration).toNanos();
+    List<Thread> workers = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      Session session = sessions.get(i % sessions.size());
+      workers.add(Thread.ofVirtual().start(() -> work(session, picks, end)));
+    }
+    Thread.sleep(warmUp);
+    recording = true;
+    long measuredFrom = System.nanoTime();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+    print(seconds);
+    if (report != null) {
+      write(Path.of(report), seconds);
+    }
+  }
+
+  private void work(Session session, Operation[] picks, long end) {
+    RandomGenerator random = ThreadLocalRandom.current();
+    while (System.nanoTime() < end) {
+      Operation operation = picks[random.nextInt(picks.length)];
+      long start = System.nanoTime();
+      int status;
+      try {
+        status = send(operation, session, random);
+      } catch (IOException exception) {
+        status = -1;
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (recording) {
+        stats.get(operation).record((System.nanoTime() - start) / 1_000, status);
+      }
+      if (status == 401 && operation != Operation.AUTHENTICATE) {
+        // The token expired: log in again, as a client would
+        try {
+          session.authenticate();
+        } catch (IOException exception) {
+          // Retried on the next 401
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private int send(Operation operation, Session session, RandomGenerator random)
+      throws IOException, InterruptedException {
+    long postId = postId(random);
+    return switch (operation) {
+      case GET_POST -> get(session, "/api/posts/" + postId);
+      case LIST_POSTS -> get(session, "/api/posts?page=" + (1 + random.nextInt(10)));
+      case CATEGORY_POSTS ->
+          get(
+              session,
+              "/api/posts/category/" + categoryIds.get(random.nextInt(categoryIds.size())));
+      case POSTS_BY_IDS ->
+          get(
+              session,
+              "/api/posts?embedAuthor=true&ids="
+                  + IntStream.range(0, 10)
+                      .mapToObj(i -> String.valueOf(postId(random)))
+                      .collect(Collectors.joining(",")));
+      case SEARCH_POSTS ->
+          get(
+              session,
+              "/api/posts/search/"
+                  + URLEncoder.encode(
+                      LoadDataGenerator.WORDS[random.nextInt(LoadDataGenerator.WORDS.length)],
+                      StandardCharsets.UTF_8));
+      case CREATE_POST ->
+          post(
+              session,
+              "/api/posts",
+              Map.of(
+                  "title", "Load test post",
+                  "content", "Posted by the load driver.",
+                  "userId", session.userId,
+                  "categoryId", categoryIds.get(random.nextInt(categoryIds.size()))));
+      case POST_COMMENTS -> get(session, "/api/comments/post/" + postId + "?embedAuthor=true");
+      case CREATE_COMMENT ->
+          post(
+              session,
+              "/api/comments",
+              Map.of("content", "Load test comment", "postId", postId, "userId", session.userId));
+      case AUTHENTICATE -> session.authenticate();
+      case REFRESH -> session.refresh();
+    };
+  }
+
+  private long postId(RandomGenerator random) {
+    return minPostId + posts.size() - 1 - posts.sample(random);
+  }
+
+  private int get(Session session, String path) throws IOException, InterruptedException {
+    return client
+        .send(
+            request(path).header("Authorization", "Bearer " + session.token).build(),
+            BodyHandlers.discarding())
+        .statusCode();
+  }
+
+  private int post(Session session, String path, Object body)
+      throws IOException, InterruptedException {
+    return client
+        .send(
+            request(path)
+                .header("Authorization", "Bearer " + session.token)
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build(),
+            BodyHandlers.discarding())
+        .statusCode();
+  }
+
+  private JsonNode json(Session session, String path) throws IOException, InterruptedException {
+    HttpResponse<byte[]> response =
+        client.send(
+            request(path).header("Authorization", "Bearer " + session.token).build(),
+            BodyHandlers.ofByteArray());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+    }
+    return objectMapper.readTree(response.body());
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+  }
+
+  private void print(double seconds) {
+    System.out.printf(
+        "%n%-16s %10s %10s %8s %10s %10s %10s %10s%n",
+        "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    Stats total = new Stats();
+    stats.forEach(
+        (operation, operationStats) -> {
+          print(operation.label, operationStats, seconds);
+          total.add(operationStats);
+        });
+    print("total", total, seconds);
+    stats.forEach(
+        (operation, operationStats) -> {
+          if (!operationStats.errors.isEmpty()) {
+            System.out.printf("%s errors by status: %s%n", operation.label, operationStats.errors);
+          }
+        });
+  }
+
+  private static void print(String label, Stats stats, double seconds) {
+    Histogram latencies = stats.latencies;
+    System.out.printf(
+        "%-16s %10d %10.1f %8d %10.2f %10.2f %10.2f %10.2f%n",
+        label,
+        latencies.getTotalCount(),
+        latencies.getTotalCount() / seconds,
+        stats.errorCount(),
+        millis(latencies, 50),
+        millis(latencies, 99),
+        millis(latencies, 99.9),
+        latencies.getMaxValue() / 1_000.0);
+  }
+
+  private void write(Path path, double seconds) throws IOException {
+    Map<String, Object> results = new LinkedHashMap<>();
+    Stats total = new Stats();
+    stats.forEach(
+        (operation, operationStats) -> {
+          results.put(operation.label, summary(operationStats, seconds));
+          total.add(operationStats);
+        });
+    results.put("total", summary(total, seconds));
+    Map<String, Object> document = new LinkedHashMap<>();
+    document.put("baseUrl", baseUrl);
+    document.put("concurrency", concurrency);
+    document.put("seconds", seconds);
+    document.put(
+        "mix",
+        mix.entrySet().stream()
+            .collect(
+                Collectors.toMap(
+                    entry -> entry.getKey().label,
+                    Map.Entry::getValue,
+                    (a, b) -> a,
+                    LinkedHashMap::new)));
+    document.put("operations", results);
+    Files.write(path, objectMapper.writeValueAsBytes(document));
+    System.out.printf("Results written to %s%n", path);
+  }
+
+  private static Map<String, Object> summary(Stats stats, double seconds) {
+    Histogram latencies = stats.latencies;
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("requests", latencies.getTotalCount());
+    summary.put("throughput", latencies.getTotalCount() / seconds);
+    summary.put("errors", stats.errorCount());
+    summary.put("p50Ms", millis(latencies, 50));
+    summary.put("p99Ms", millis(latencies, 99));
+    summary.put("p999Ms", millis(latencies, 99.9));
+    summary.put("maxMs", latencies.getMaxValue() / 1_000.0);
+    return summary;
+  }
+
+  private static double millis(Histogram latencies, double percentile) {
+    return latencies.getValueAtPercentile(percentile) / 1_000.0;
+  }
+
+  private static Operation operation(String label) {
+    for (Operation operation : Operation.values()) {
+      if (operation.label.equals(label)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("Unknown operation in the mix: " + label);
+  }
+
+  private static Duration duration(String value) {
+    return value.startsWith("P") || value.startsWith("p")
+        ? Duration.parse(value)
+        : Duration.ofSeconds(Long.parseLong(value));
+  }
+
+  /** Latencies, in microseconds, and errors by status of an operation; -1 is an I/O error. */
+  private static final class Stats {
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+    private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(long latency, int status) {
+      latencies.recordValue(Math.min(latency, HIGHEST_LATENCY));
+      if (status < 200 || status >= 300) {
+        errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+      }
+    }
+
+    void add(Stats other) {
+      latencies.add(other.latencies);
+      other.errors.forEach(
+          (status, count) ->
+              errors.computeIfAbsent(status, key -> new LongAdder()).add(count.sum()));
+    }
+
+    long errorCount() {
+      return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+  }
+
+  /**
+   * Tokens of a generated user, shared by the workers logged in as the user. Logging in and
+   * refreshing are serialized, so that a refresh token is used once.
+   */
+  private final class Session {
+
+    private final String username;
+    private volatile String token;
+    private volatile String refreshToken;
+    private volatile Long userId;
+
+    Session(String username) {
+      this.username = username;
+    }
+
+    synchronized int authenticate() throws IOException, InterruptedException {
+      return tokens(
+          "/api/auth/authenticate",
+          Map.of("username", username, "password", LoadDataGenerator.PASSWORD));
+    }
+
+    synchronized int refresh() throws IOException, InterruptedException {
+      int status = tokens("/api/auth/refresh", Map.of("refreshToken", refreshToken));
+      return status == 401 ? authenticate() : status;
+    }
+
+    private int tokens(String path, Map<String, String> body)
+        throws IOException, InterruptedException {
+      HttpResponse<byte[]> response =
+          client.send(
+              request(path)
+                  .header("Content-Type", "application/json")
+                  .POST(BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                  .build(),
+              BodyHandlers.ofByteArray());
+      if (response.statusCode() == 200) {
+        JsonNode tokens = objectMapper.readTree(response.body());
+        token = tokens.get("token").asText();
+        refreshToken = tokens.get("refreshToken").asText();
+        JsonNode claims =
+            objectMapper.readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+        userId = claims.get("uid").asLong();
+      }
+      return response.statusCode();
+    }
+  }
+}
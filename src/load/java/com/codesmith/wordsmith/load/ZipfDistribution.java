@@ -0,0 +1,51 @@
+package com.codesmith.wordsmith.load;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf distribution over the ranks 0 to {@code n - 1}, rank {@code k} being drawn with a
+ * probability proportional to {@code 1 / (k + 1)^exponent}.
+ *
+ * <p>With an exponent around 1, the first ranks take most of the draws and the others share a
+ * long tail, as the popularity of authors and posts does.
+ */
+final class ZipfDistribution {
+
+  private final double[] cumulative;
+
+  ZipfDistribution(int n, double exponent) {
+    if (n < 1) {
+      throw new IllegalArgumentException("A Zipf distribution needs at least one rank");
+    }
+    cumulative = new double[n];
+    double sum = 0;
+    for (int k = 0; k < n; k++) {
+      sum += 1 / Math.pow(k + 1, exponent);
+      cumulative[k] = sum;
+    }
+    for (int k = 0; k < n; k++) {
+      cumulative[k] /= sum;
+    }
+  }
+
+  /**
+   * Returns the number of ranks.
+   *
+   * @return {@code n}.
+   */
+  int size() {
+    return cumulative.length;
+  }
+
+  /**
+   * Draws a rank.
+   *
+   * @param random the source of randomness.
+   * @return a rank, from 0 to {@code n - 1}.
+   */
+  int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+  }
+}
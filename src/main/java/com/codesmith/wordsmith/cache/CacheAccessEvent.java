@@ -0,0 +1,105 @@
+package com.codesmith.wordsmith.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a call to a cache, recorded by the {@link TimedCache}.
+ *
+ * <p>Unlike the {@value TimedCache#TIMER} timer, the event lasts for the whole call, loading a
+ * missing value included. The bytes are those of the entry read from or written to the off-heap
+ * copy of the {@link OffHeapCache}, if any; the bytes exchanged with Redis are not counted.
+ *
+ * <p>When the event is disabled, only its allocation is left, which the JIT compiler elides.
+ *
+ * @version 1.0
+ */
+@Name("wordsmith.CacheAccess")
+@Label("Cache Access")
+@Category({"Word Smith", "Cache"})
+@Description("Call to a cache, loading a missing value included")
+@StackTrace(false)
+final class CacheAccessEvent extends Event {
+
+  private static final ThreadLocal<CacheAccessEvent> CURRENT = new ThreadLocal<>();
+
+  @Label("Cache")
+  String cache;
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Key Class")
+  Class<?> keyClass;
+
+  @Label("Result")
+  @Description("hit or miss for lookups, none otherwise")
+  String result = "none";
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  /** The call this one was made in, such as a load, resumed when this one finishes. */
+  private transient CacheAccessEvent outer;
+
+  /**
+   * Whether the event was enabled when started, and so made the current call of its thread. The
+   * event is finished on this account, since a recording may start or stop during the call.
+   */
+  private transient boolean started;
+
+  /**
+   * Starts the event of a call on the current thread.
+   *
+   * @param cache the name of the cache.
+   * @param operation the operation called.
+   * @param key the key, null if the operation has none.
+   * @return the event, to be finished on the same thread.
+   */
+  static CacheAccessEvent start(String cache, String operation, Object key) {
+    CacheAccessEvent event = new CacheAccessEvent();
+    if (event.isEnabled()) {
+      event.cache = cache;
+      event.operation = operation;
+      event.keyClass = key == null ? null : key.getClass();
+      event.outer = CURRENT.get();
+      event.started = true;
+      CURRENT.set(event);
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Adds bytes read or written to the call in progress on the current thread, if recorded.
+   *
+   * @param bytes the number of bytes.
+   */
+  static void transferred(long bytes) {
+    CacheAccessEvent event = CURRENT.get();
+    if (event != null) {
+      event.bytes += bytes;
+    }
+  }
+
+  /**
+   * Finishes the event, committing it if it is still enabled and lasted long enough, and resumes
+   * the outer call if it was started.
+   */
+  void finish() {
+    if (started) {
+      if (outer == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(outer);
+      }
+      commit();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.codesmith.wordsmith.cache;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * Cached value stored along with what it cost to compute and when it goes stale.
+ *
+ * <p>Written by {@link SingleFlightCache} so that hot entries can be refreshed before they expire.
+ * The entry is kept in Redis for a while after it goes stale, during which it is still served while
+ * it is being refreshed.
+ *
+ * @param value the cached value.
+ * @param cost how long the value took to compute, in nanoseconds.
+ * @param expiresAt when the value goes stale, in epoch milliseconds, or {@link Long#MAX_VALUE} if
+ *     it never does.
+ */
+public record CacheEntry(Object value, long cost, long expiresAt) implements Serializable {
+
+  static CacheEntry of(Object value, long cost, Duration timeToLive) {
+    long expiresAt =
+        timeToLive.isZero() || timeToLive.isNegative()
+            ? Long.MAX_VALUE
+            : System.currentTimeMillis() + timeToLive.toMillis();
+    return new CacheEntry(value, cost, expiresAt);
+  }
+
+  /** Unwraps the value of an entry, leaving values cached without one as they are. */
+  static Object unwrap(Object cached) {
+    return cached instanceof CacheEntry entry ? entry.value() : cached;
+  }
+
+  boolean isStale(long now) {
+    return now >= expiresAt;
+  }
+
+  /**
+   * Decides whether to refresh the entry ahead of its expiry, with the XFetch rule: the closer the
+   * entry is to expiring and the longer it took to compute, the more likely a reader is to refresh
+   * it, so that a hot entry is usually recomputed just once before it goes stale.
+   *
+   * @param now the current time, in epoch milliseconds.
+   * @param beta how eagerly to refresh; 1 is the optimum for a single reader, larger values refresh
+   *     earlier.
+   * @param random a uniformly distributed number in (0, 1].
+   */
+  boolean shouldRefreshEarly(long now, double beta, double random) {
+    return expiresAt != Long.MAX_VALUE && now - cost / 1e6 * beta * Math.log(random) >= expiresAt;
+  }
+
+  /**
+   * Returns how long Redis must keep the entry: until it goes stale, then for the time it may be
+   * served stale.
+   *
+   * @param staleWhileRevalidate how long a stale entry may be served while it is refreshed.
+   * @return the time to live of the entry, or zero if it never expires.
+   */
+  public Duration timeToLive(Duration staleWhileRevalidate) {
+    if (expiresAt == Long.MAX_VALUE) {
+      return Duration.ZERO;
+    }
+    long remaining = Math.max(expiresAt - System.currentTimeMillis(), 1);
+    return Duration.ofMillis(remaining).plus(staleWhileRevalidate);
+  }
+}
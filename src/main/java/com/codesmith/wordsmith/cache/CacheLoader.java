@@ -0,0 +1,33 @@
+package com.codesmith.wordsmith.cache;
+
+/**
+ * Loads the entries of a cache from the source of truth, for {@link SingleFlightCache} to refresh
+ * them in the background.
+ *
+ * <p>A background refresh runs after the {@code @Cacheable} call that triggered it has returned,
+ * so it cannot reuse the loader of that call. Beans implementing this interface register the
+ * loader of their cache with the {@link SingleFlightCacheResolver}; caches without one are not
+ * refreshed, and their entries simply expire.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @version 1.0
+ */
+public interface CacheLoader<K, V> {
+
+  /**
+   * Returns the name of the cache the loader fills.
+   *
+   * @return the name of the cache.
+   */
+  String cacheName();
+
+  /**
+   * Loads the value of a key, bypassing the cache.
+   *
+   * @param key the key.
+   * @return the value.
+   * @throws com.codesmith.wordsmith.exception.ResourceNotFoundException if the key has no value.
+   */
+  V load(K key);
+}
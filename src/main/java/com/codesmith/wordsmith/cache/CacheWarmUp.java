@@ -0,0 +1,272 @@
+package com.codesmith.wordsmith.cache;
+
+import static com.codesmith.wordsmith.post.PageConstants.PAGE_SIZE;
+import static com.codesmith.wordsmith.post.PageConstants.SORT_BY;
+import static com.codesmith.wordsmith.post.PageConstants.SORT_DIRECTION;
+
+import com.codesmith.wordsmith.category.CategoryResponseDto;
+import com.codesmith.wordsmith.category.CategorySnapshot;
+import com.codesmith.wordsmith.post.PagedResponse;
+import com.codesmith.wordsmith.post.PostReadStats;
+import com.codesmith.wordsmith.post.PostResponseDto;
+import com.codesmith.wordsmith.post.PostService;
+import com.codesmith.wordsmith.user.AuthorLoader;
+import com.codesmith.wordsmith.user.UserService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the caches with the entries most likely to be read before the application takes traffic.
+ *
+ * <p>Runs once the application has started, before it reports ready on {@code
+ * /actuator/health/readiness}, so that a freshly deployed node or a flushed cache does not send
+ * its first requests to the database. The category snapshot is loaded when it is created, and is
+ * used here to list the categories. The warm-up then caches, running at most {@code
+ * cache.warm-up.parallelism} steps at a time so as not to exceed the database concurrency limit:
+ *
+ * <ul>
+ *   <li>the first {@code cache.warm-up.list-pages} pages of all posts and the first page of each
+ *       category, as they are listed by default;
+ *   <li>the {@code cache.warm-up.most-read-posts} posts read the most lately, according to the
+ *       {@link PostReadStats}, in batches of one query each;
+ *   <li>the authors of these posts, in the user cache and the {@link AuthorLoader}.
+ * </ul>
+ *
+ * <p>The warm-up gives up once {@code cache.warm-up.time-budget} has passed, so that a slow
+ * database delays readiness by no more than that; whatever was cached by then is kept. The steps
+ * still running finish, but no other is started, so the warm-up does not keep querying the database
+ * once the node takes traffic. A failed step is logged and skipped.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmUp implements ApplicationRunner {
+
+  private final PostService postService;
+  private final UserService userService;
+  private final AuthorLoader authorLoader;
+  private final CategorySnapshot categorySnapshot;
+  private final PostReadStats postReadStats;
+  private final MultiGetCache multiGetCache;
+  private final Executor executor;
+  private final Duration timeBudget;
+  private final int parallelism;
+  private final int listPages;
+  private final int mostReadPosts;
+  private final int batchSize;
+
+  public CacheWarmUp(
+      PostService postService,
+      UserService userService,
+      AuthorLoader authorLoader,
+      CategorySnapshot categorySnapshot,
+      PostReadStats postReadStats,
+      MultiGetCache multiGetCache,
+      @Qualifier("applicationTaskExecutor") Executor executor,
+      @Value("${cache.warm-up.time-budget:10s}") Duration timeBudget,
+      @Value("${cache.warm-up.parallelism:${jdbc.limiter.max-concurrency:10}}") int parallelism,
+      @Value("${cache.warm-up.list-pages:3}") int listPages,
+      @Value("${cache.warm-up.most-read-posts:500}") int mostReadPosts,
+      @Value("${cache.multi-get.maximum-keys:100}") int batchSize) {
+    this.postService = postService;
+    this.userService = userService;
+    this.authorLoader = authorLoader;
+    this.categorySnapshot = categorySnapshot;
+    this.postReadStats = postReadStats;
+    this.multiGetCache = multiGetCache;
+    this.executor = executor;
+    this.timeBudget = timeBudget;
+    this.parallelism = Math.max(parallelism, 1);
+    this.listPages = listPages;
+    this.mostReadPosts = mostReadPosts;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long start = System.nanoTime();
+    long deadline = start + timeBudget.toNanos();
+    Set<Long> postIds = ConcurrentHashMap.newKeySet();
+    Set<Long> authorIds = ConcurrentHashMap.newKeySet();
+
+    List<Step> posts = new ArrayList<>();
+    int pageSize = Integer.parseInt(PAGE_SIZE);
+    for (int page = 1; page <= listPages; page++) {
+      int number = page;
+      posts.add(
+          new Step(
+              "page " + number + " of the posts",
+              () ->
+                  cacheList(
+                      postService.getAllPosts(number, pageSize, SORT_BY, SORT_DIRECTION),
+                      postIds,
+                      authorIds)));
+    }
+    for (CategoryResponseDto category : categorySnapshot.getAll()) {
+      posts.add(
+          new Step(
+              "the posts of category " + category.id(),
+              () ->
+                  cacheList(
+                      postService.getPostsByCategoryId(
+                          category.id(), 1, pageSize, SORT_BY, SORT_DIRECTION),
+                      postIds,
+                      authorIds)));
+    }
+    for (List<Long> batch : batches(mostRead())) {
+      posts.add(
+          new Step(
+              batch.size() + " most-read posts",
+              () -> collect(postService.getPostsByIds(batch), postIds, authorIds)));
+    }
+    boolean completed = runAll(posts, deadline);
+
+    if (completed) {
+      List<Step> authors = new ArrayList<>();
+      for (List<Long> batch : batches(List.copyOf(authorIds))) {
+        authors.add(
+            new Step(
+                batch.size() + " authors",
+                () -> {
+                  userService.getUsersByIds(batch);
+                  authorLoader.preload(batch);
+                }));
+      }
+      completed = runAll(authors, deadline);
+    }
+
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (completed) {
+      log.info(
+          "Warmed up the caches with {} posts and {} authors in {} ms",
+          postIds.size(),
+          authorIds.size(),
+          elapsed);
+    } else {
+      log.warn(
+          "Cache warm-up ran out of its {} budget after caching {} posts",
+          timeBudget,
+          postIds.size());
+    }
+  }
+
+  private List<Long> mostRead() {
+    if (mostReadPosts <= 0) {
+      return List.of();
+    }
+    try {
+      return postReadStats.mostRead(mostReadPosts);
+    } catch (RuntimeException exception) {
+      log.warn("Failed to read the most-read posts, skipping them", exception);
+      return List.of();
+    }
+  }
+
+  /** Caches the posts of a page, which listing them does not do by itself. */
+  private void cacheList(
+      PagedResponse<PostResponseDto> page, Set<Long> postIds, Set<Long> authorIds) {
+    multiGetCache.putAll(
+        "post",
+        page.getContent().stream()
+            .collect(Collectors.toMap(PostResponseDto::id, Function.identity())));
+    collect(page.getContent(), postIds, authorIds);
+  }
+
+  private static void collect(
+      List<PostResponseDto> posts, Set<Long> postIds, Set<Long> authorIds) {
+    for (PostResponseDto post : posts) {
+      postIds.add(post.id());
+      if (post.userId() != null) {
+        authorIds.add(post.userId());
+      }
+    }
+  }
+
+  private List<List<Long>> batches(List<Long> ids) {
+    List<List<Long>> batches = new ArrayList<>();
+    for (int from = 0; from < ids.size(); from += batchSize) {
+      batches.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+    }
+    return batches;
+  }
+
+  /**
+   * Runs the steps on at most {@code parallelism} workers, which stop taking steps once the
+   * deadline has passed.
+   *
+   * @return whether every step ran before the deadline.
+   */
+  private boolean runAll(List<Step> steps, long deadline) {
+    Queue<Step> pending = new ConcurrentLinkedQueue<>(steps);
+    AtomicBoolean stopped = new AtomicBoolean();
+    List<CompletableFuture<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < Math.min(parallelism, steps.size()); i++) {
+      workers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                Step step;
+                while (!stopped.get()
+                    && System.nanoTime() - deadline < 0
+                    && (step = pending.poll()) != null) {
+                  step.run();
+                }
+              },
+              executor));
+    }
+    boolean completed = await(workers, deadline);
+    // Workers still running finish their step and take no other
+    stopped.set(true);
+    return completed && pending.isEmpty();
+  }
+
+  /** Waits for the tasks until the deadline, returning whether they all completed. */
+  private static boolean await(List<CompletableFuture<Void>> tasks, long deadline) {
+    try {
+      CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+          .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (TimeoutException exception) {
+      return false;
+    } catch (ExecutionException exception) {
+      log.warn("Cache warm-up failed", exception.getCause());
+      return false;
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /** A unit of the warm-up, logged and skipped if it fails. */
+  private record Step(String name, Runnable task) {
+
+    void run() {
+      try {
+        task.run();
+      } catch (RuntimeException exception) {
+        log.warn("Failed to warm up {}, skipping it", name, exception);
+      }
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.codesmith.wordsmith.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Cache telling the entries loaded into it apart from the changes written to it.
+ *
+ * <p>A load fills the cache with what the source of truth already holds, so unlike a {@link
+ * #put(Object, Object) put} made by {@code @CachePut} it has no change to announce to other nodes.
+ *
+ * @version 1.0
+ */
+public interface FillableCache extends Cache {
+
+  /**
+   * Stores a value just loaded from the source of truth.
+   *
+   * @param key the key.
+   * @param value the value loaded.
+   */
+  void fill(Object key, Object value);
+
+  /**
+   * Fills a cache with a value, or puts it in a cache that does not tell fills apart.
+   *
+   * @param cache the cache.
+   * @param key the key.
+   * @param value the value loaded.
+   */
+  static void fill(Cache cache, Object key, Object value) {
+    if (cache instanceof FillableCache fillable) {
+      fillable.fill(key, value);
+    } else {
+      cache.put(key, value);
+    }
+  }
+}
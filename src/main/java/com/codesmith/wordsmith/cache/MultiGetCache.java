@@ -0,0 +1,304 @@
+package com.codesmith.wordsmith.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads, fills and evicts many entries of a Redis-backed cache in a constant number of round
+ * trips.
+ *
+ * <p>{@code @Cacheable} resolves one key per call, so fetching n entities costs n cache reads and
+ * up to n queries. This facility reads all the keys with a single {@code MGET}, loads the misses
+ * with one call of the given loader and writes them back in a single pipeline. Entries are stored
+ * under the same keys and with the same serialization and time to live as the {@link RedisCache}
+ * of the same name, so they are shared with the {@code @Cacheable} methods of that cache.
+ *
+ * <p>Entries written by a {@link SingleFlightCache} are unwrapped from their {@link CacheEntry},
+ * and keys it cached as not found are skipped without being loaded. Entries written here are plain
+ * values, which that cache serves as they are.
+ *
+ * <p>Redis is called through the {@link RedisCircuitBreaker}. When it cannot be reached, every key
+ * is treated as a miss and the entries are loaded from the loader alone.
+ *
+ * <p>Reads, writes and evictions are recorded by the {@value TimedCache#TIMER} timer, as the {@code
+ * get-all}, {@code put-all} and {@code evict-all} operations; a read counts as a hit only if every
+ * key was found.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class MultiGetCache {
+
+  /** Keys removed by a single {@code UNLINK} command of an eviction pipeline. */
+  private static final int EVICTION_BATCH_SIZE = 1000;
+
+  private final CacheManager cacheManager;
+  private final RedisConnectionFactory connectionFactory;
+  private final RedisCircuitBreaker circuitBreaker;
+  private final MeterRegistry meterRegistry;
+  private final int maximumKeys;
+
+  public MultiGetCache(
+      CacheManager cacheManager,
+      RedisConnectionFactory connectionFactory,
+      RedisCircuitBreaker circuitBreaker,
+      MeterRegistry meterRegistry,
+      @Value("${cache.multi-get.maximum-keys:100}") int maximumKeys) {
+    this.cacheManager = cacheManager;
+    this.connectionFactory = connectionFactory;
+    this.circuitBreaker = circuitBreaker;
+    this.meterRegistry = meterRegistry;
+    this.maximumKeys = maximumKeys;
+  }
+
+  /**
+   * Returns the entries of a cache for the given keys, loading and caching the missing ones.
+   *
+   * @param cacheName the name of the cache.
+   * @param keys the keys to look up; duplicates are resolved once.
+   * @param loader loads the entries of the keys missing from the cache, in a single call. Keys
+   *     with no entry are left out of the returned map.
+   * @param <K> the type of the keys.
+   * @param <V> the type of the entries.
+   * @return the entries found, in the order of their keys; keys with no entry are skipped.
+   * @throws IllegalArgumentException if more keys than {@code cache.multi-get.maximum-keys} are
+   *     requested.
+   */
+  public <K, V> List<V> getAll(
+      String cacheName, Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+    Set<K> distinctKeys = new LinkedHashSet<>(keys);
+    if (distinctKeys.size() > maximumKeys) {
+      throw new IllegalArgumentException(
+          "At most " + maximumKeys + " ids can be requested at once.");
+    }
+    if (distinctKeys.isEmpty()) {
+      return List.of();
+    }
+
+    RedisCacheConfiguration configuration = configurationOf(cacheName);
+    List<K> orderedKeys = new ArrayList<>(distinctKeys);
+    byte[][] redisKeys = new byte[orderedKeys.size()][];
+    for (int i = 0; i < redisKeys.length; i++) {
+      redisKeys[i] = redisKey(cacheName, configuration, orderedKeys.get(i));
+    }
+
+    long start = System.nanoTime();
+    Object[] values = read(configuration, redisKeys);
+    Set<K> misses = new LinkedHashSet<>();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        misses.add(orderedKeys.get(i));
+      }
+    }
+    TimedCache.timer(meterRegistry, cacheName, "get-all", misses.isEmpty() ? "hit" : "miss")
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+    if (!misses.isEmpty()) {
+      Map<K, V> loaded = loader.apply(misses);
+      List<Integer> filled = new ArrayList<>(misses.size());
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] == null && loaded.containsKey(orderedKeys.get(i))) {
+          values[i] = loaded.get(orderedKeys.get(i));
+          filled.add(i);
+        }
+      }
+      long writeStart = System.nanoTime();
+      write(configuration, orderedKeys, redisKeys, values, filled);
+      TimedCache.timer(meterRegistry, cacheName, "put-all", "none")
+          .record(System.nanoTime() - writeStart, TimeUnit.NANOSECONDS);
+    }
+
+    List<V> result = new ArrayList<>(values.length);
+    for (Object value : values) {
+      if (value != null && !(value instanceof NegativeEntry)) {
+        @SuppressWarnings("unchecked")
+        V entry = (V) value;
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Writes entries to a cache in a single pipeline, replacing those already cached.
+   *
+   * @param cacheName the name of the cache.
+   * @param entries the entries to write, by key.
+   * @param <K> the type of the keys.
+   * @param <V> the type of the entries.
+   */
+  public <K, V> void putAll(String cacheName, Map<K, V> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    RedisCacheConfiguration configuration = configurationOf(cacheName);
+    List<K> keys = new ArrayList<>(entries.keySet());
+    byte[][] redisKeys = new byte[keys.size()][];
+    Object[] values = new Object[keys.size()];
+    List<Integer> indexes = new ArrayList<>(keys.size());
+    for (int i = 0; i < redisKeys.length; i++) {
+      redisKeys[i] = redisKey(cacheName, configuration, keys.get(i));
+      values[i] = entries.get(keys.get(i));
+      indexes.add(i);
+    }
+    TimedCache.timer(meterRegistry, cacheName, "put-all", "none")
+        .record(() -> write(configuration, keys, redisKeys, values, indexes));
+  }
+
+  /**
+   * Evicts entries from a cache in a single pipeline of {@code UNLINK} commands, which free the
+   * memory of the entries in the background of Redis.
+   *
+   * <p>Unlike the other operations, Redis is called directly rather than through the circuit
+   * breaker, so that the caller can tell whether the entries were evicted.
+   *
+   * @param cacheName the name of the cache.
+   * @param keys the keys to evict.
+   * @throws org.springframework.dao.DataAccessException if Redis cannot be reached.
+   */
+  public void evictAll(String cacheName, Collection<?> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    RedisCacheConfiguration configuration = configurationOf(cacheName);
+    byte[][] redisKeys =
+        keys.stream().map(key -> redisKey(cacheName, configuration, key)).toArray(byte[][]::new);
+    TimedCache.timer(meterRegistry, cacheName, "evict-all", "none")
+        .record(
+            () -> {
+              try (RedisConnection connection = connectionFactory.getConnection()) {
+                connection.openPipeline();
+                try {
+                  for (int i = 0; i < redisKeys.length; i += EVICTION_BATCH_SIZE) {
+                    connection
+                        .keyCommands()
+                        .unlink(
+                            Arrays.copyOfRange(
+                                redisKeys,
+                                i,
+                                Math.min(i + EVICTION_BATCH_SIZE, redisKeys.length)));
+                  }
+                } finally {
+                  connection.closePipeline();
+                }
+              }
+            });
+  }
+
+  private RedisCacheConfiguration configurationOf(String cacheName) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (!(cache instanceof RedisCache redisCache)) {
+      throw new IllegalStateException("Cache " + cacheName + " is not backed by Redis");
+    }
+    return redisCache.getCacheConfiguration();
+  }
+
+  /** Builds the key the {@link RedisCache} of the same name stores the entry of a key under. */
+  private static byte[] redisKey(
+      String cacheName, RedisCacheConfiguration configuration, Object key) {
+    ConversionService conversionService = configuration.getConversionService();
+    String cacheKey = conversionService.convert(key, String.class);
+    if (configuration.usePrefix()) {
+      cacheKey = configuration.getKeyPrefixFor(cacheName) + cacheKey;
+    }
+    return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+  }
+
+  /**
+   * Reads the keys with a single MGET. Entries that are absent or unreadable are null, and keys
+   * cached as not found are {@link NegativeEntry NegativeEntries}.
+   */
+  private Object[] read(RedisCacheConfiguration configuration, byte[][] redisKeys) {
+    Object[] values = new Object[redisKeys.length];
+    List<byte[]> raw =
+        circuitBreaker.execute(
+            () -> {
+              try (RedisConnection connection = connectionFactory.getConnection()) {
+                return connection.stringCommands().mGet(redisKeys);
+              }
+            },
+            () -> null);
+    for (int i = 0; raw != null && i < values.length; i++) {
+      byte[] bytes = raw.get(i);
+      if (bytes == null) {
+        continue;
+      }
+      try {
+        Object value = configuration.getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+        value = CacheEntry.unwrap(value);
+        values[i] = value instanceof NullValue ? null : value;
+      } catch (RuntimeException exception) {
+        log.warn("Failed to read a cache entry from Redis", exception);
+      }
+    }
+    return values;
+  }
+
+  /** Writes the entries at the given indexes with their time to live in a single pipeline. */
+  private void write(
+      RedisCacheConfiguration configuration,
+      List<?> keys,
+      byte[][] redisKeys,
+      Object[] values,
+      List<Integer> indexes) {
+    if (indexes.isEmpty()) {
+      return;
+    }
+    circuitBreaker.execute(
+        () -> {
+          try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+              for (int i : indexes) {
+                set(connection, configuration, keys.get(i), redisKeys[i], values[i]);
+              }
+            } finally {
+              connection.closePipeline();
+            }
+          }
+          return null;
+        },
+        () -> null);
+  }
+
+  private static void set(
+      RedisConnection connection,
+      RedisCacheConfiguration configuration,
+      Object key,
+      byte[] redisKey,
+      Object value) {
+    Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+    connection
+        .stringCommands()
+        .set(
+            redisKey,
+            ByteUtils.getBytes(configuration.getValueSerializationPair().write(value)),
+            ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+            SetOption.upsert());
+  }
+}
@@ -0,0 +1,14 @@
+package com.codesmith.wordsmith.cache;
+
+import java.io.Serializable;
+
+/**
+ * Cached record that the value of a key does not exist.
+ *
+ * <p>Written by {@link SingleFlightCache} when loading a key fails with a {@link
+ * com.codesmith.wordsmith.exception.ResourceNotFoundException}, and kept for a short time so that
+ * repeated lookups of the missing key are answered from the cache.
+ *
+ * @param message the message of the exception the lookup failed with.
+ */
+public record NegativeEntry(String message) implements Serializable {}
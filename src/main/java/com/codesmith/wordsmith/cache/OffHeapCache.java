@@ -0,0 +1,280 @@
+package com.codesmith.wordsmith.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.ConfigurableObjectInputStream;
+
+/**
+ * Cache decorator keeping a node-local copy of the entries of a cache outside the Java heap.
+ *
+ * <p>Entries read from the cache are serialized into an {@link OffHeapStore}, so that a large
+ * number of them can be held without the garbage collector ever scanning them. A hit is
+ * deserialized straight from the off-heap buffer, with no intermediate copy and no call to the
+ * cache behind. Local copies are kept for {@code timeToLive} at most, or until evicted to make
+ * room.
+ *
+ * <p>Writes go to the cache behind, then replace or drop the local copy, and are announced to the
+ * other nodes through {@code onChange}, so that they drop their own copy of the key. A missed
+ * announcement leaves a stale copy for no longer than {@code timeToLive}. Values loaded into the
+ * cache through {@link #fill(Object, Object)} change nothing the other nodes hold, so they are
+ * stored without an announcement. {@link NegativeEntry NegativeEntries} are never copied locally,
+ * since they are meant to be kept for less than {@code timeToLive}.
+ *
+ * @version 1.0
+ */
+@Slf4j
+public class OffHeapCache implements FillableCache {
+
+  private final Cache delegate;
+  private final OffHeapStore store;
+  private final long timeToLive;
+  private final BiConsumer<String, String> onChange;
+  private final Counter hits;
+  private final Counter misses;
+
+  /**
+   * Decorates a cache.
+   *
+   * @param delegate the cache to decorate.
+   * @param store the off-heap store holding the local copies.
+   * @param timeToLive how long a local copy is kept.
+   * @param onChange called with the name of the cache and a changed key, or a null key once the
+   *     cache is cleared, to announce the change to the other nodes.
+   * @param meterRegistry the registry of the hit and miss counters.
+   */
+  public OffHeapCache(
+      Cache delegate,
+      OffHeapStore store,
+      Duration timeToLive,
+      BiConsumer<String, String> onChange,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.store = store;
+    this.timeToLive = timeToLive.toMillis();
+    this.onChange = onChange;
+    this.hits = gets(meterRegistry, "hit");
+    this.misses = gets(meterRegistry, "miss");
+    Gauge.builder("cache.off-heap.entries", store, OffHeapStore::size)
+        .description("Entries held in the off-heap cache")
+        .tag("cache", delegate.getName())
+        .register(meterRegistry);
+    FunctionCounter.builder("cache.off-heap.evictions", store, OffHeapStore::evictions)
+        .description("Entries evicted from the off-heap cache to make room for others")
+        .tag("cache", delegate.getName())
+        .register(meterRegistry);
+  }
+
+  private Counter gets(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("cache.off-heap.gets")
+        .description("Lookups of the off-heap cache")
+        .tag("cache", delegate.getName())
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    ValueWrapper local = getLocal(key);
+    if (local != null) {
+      return local;
+    }
+    ValueWrapper cached = delegate.get(key);
+    if (cached != null) {
+      putLocal(key, cached.get());
+    }
+    return cached;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper cached = get(key);
+    Object value = cached == null ? null : cached.get();
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper local = getLocal(key);
+    if (local != null) {
+      return (T) local.get();
+    }
+    T value = delegate.get(key, valueLoader);
+    putLocal(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    delegate.put(key, value);
+    putLocal(key, value);
+    onChange.accept(getName(), keyOf(key));
+  }
+
+  @Override
+  public void fill(Object key, Object value) {
+    FillableCache.fill(delegate, key, value);
+    putLocal(key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    ValueWrapper existing = delegate.putIfAbsent(key, value);
+    evictLocal(keyOf(key));
+    onChange.accept(getName(), keyOf(key));
+    return existing;
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    evictLocal(keyOf(key));
+    onChange.accept(getName(), keyOf(key));
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    clearLocal();
+    onChange.accept(getName(), null);
+  }
+
+  /**
+   * Drops the local copy of a key changed on another node.
+   *
+   * @param key the key, as announced.
+   */
+  void evictLocal(String key) {
+    store.remove(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Drops every local copy, once the cache was cleared on another node. */
+  void clearLocal() {
+    store.clear();
+  }
+
+  private ValueWrapper getLocal(Object key) {
+    ValueWrapper local =
+        store.get(
+            keyOf(key).getBytes(StandardCharsets.UTF_8),
+            System.currentTimeMillis(),
+            OffHeapCache::deserialize);
+    (local == null ? misses : hits).increment();
+    return local;
+  }
+
+  private void putLocal(Object key, Object value) {
+    if (value instanceof NegativeEntry) {
+      evictLocal(keyOf(key));
+      return;
+    }
+    SerializedValue serialized = new SerializedValue();
+    try (ObjectOutputStream output = new ObjectOutputStream(serialized)) {
+      output.writeObject(value == null ? NullValue.INSTANCE : value);
+    } catch (IOException exception) {
+      log.warn("Failed to serialize the entry of key {} of cache {}", key, getName(), exception);
+      return;
+    }
+    CacheAccessEvent.transferred(serialized.size());
+    store.put(
+        keyOf(key).getBytes(StandardCharsets.UTF_8),
+        serialized.bytes(),
+        serialized.size(),
+        System.currentTimeMillis() + timeToLive);
+  }
+
+  private static String keyOf(Object key) {
+    return String.valueOf(key);
+  }
+
+  private static ValueWrapper deserialize(ByteBuffer buffer) {
+    CacheAccessEvent.transferred(buffer.remaining());
+    try (ObjectInputStream input =
+        new ConfigurableObjectInputStream(
+            new ByteBufferInputStream(buffer), OffHeapCache.class.getClassLoader())) {
+      Object value = input.readObject();
+      return new SimpleValueWrapper(value instanceof NullValue ? null : value);
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Failed to deserialize an off-heap cache entry", exception);
+    } catch (ClassNotFoundException exception) {
+      throw new IllegalStateException("Failed to deserialize an off-heap cache entry", exception);
+    }
+  }
+
+  /** Output stream exposing the bytes written without copying them. */
+  private static final class SerializedValue extends ByteArrayOutputStream {
+
+    SerializedValue() {
+      super(512);
+    }
+
+    byte[] bytes() {
+      return buf;
+    }
+  }
+
+  /** Input stream reading a buffer in place. */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,392 @@
+package com.codesmith.wordsmith.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Map of byte keys to byte values stored outside the Java heap.
+ *
+ * <p>The store is split into segments, each guarded by its own read-write lock, with a direct
+ * {@link ByteBuffer} holding the entries and an index of them. Entries are appended to the buffer
+ * as a circular log: when it is full, the oldest entries are evicted to make room, so the store
+ * never fragments and needs no allocator. Replaced and removed entries stay in the log until their
+ * turn comes.
+ *
+ * <p>The index is an open-addressing hash table of {@code long}s, packing the hash of a key with
+ * the offset of its entry, so millions of entries cost the garbage collector a handful of arrays
+ * rather than millions of objects. An entry is laid out as its length, key hash, key length, value
+ * length and expiry time, followed by the key and value bytes.
+ *
+ * @version 1.0
+ */
+public final class OffHeapStore {
+
+  private static final int HEADER_SIZE = 24;
+  private static final int LENGTH = 0;
+  private static final int HASH = 4;
+  private static final int KEY_LENGTH = 8;
+  private static final int VALUE_LENGTH = 12;
+  private static final int EXPIRES_AT = 16;
+  private static final int INITIAL_INDEX_BITS = 10;
+
+  private final Segment[] segments;
+
+  /**
+   * Allocates a store.
+   *
+   * @param capacity the number of bytes to allocate, split evenly between the segments.
+   * @param segmentCount the number of segments, rounded up to a power of two.
+   * @throws IllegalArgumentException if a segment would be too small or larger than 2 GB.
+   */
+  public OffHeapStore(long capacity, int segmentCount) {
+    int count = Integer.highestOneBit(Math.max(segmentCount, 1) * 2 - 1);
+    long segmentCapacity = capacity / count;
+    if (segmentCapacity < HEADER_SIZE || segmentCapacity > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          "Cannot split " + capacity + " bytes into " + count + " segments of at most 2 GB");
+    }
+    segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment((int) segmentCapacity);
+    }
+  }
+
+  /**
+   * Reads the value of a key, if present and not expired.
+   *
+   * <p>The reader is given a read-only view of the value in place, and must not keep it after it
+   * returns: the bytes may be overwritten once the segment is unlocked.
+   *
+   * @param key the key.
+   * @param now the current time, in epoch milliseconds.
+   * @param reader reads the value.
+   * @param <T> the type of the value read.
+   * @return what the reader returned, or null if the key has no live entry.
+   */
+  public <T> T get(byte[] key, long now, Function<ByteBuffer, T> reader) {
+    int hash = hash(key);
+    return segmentFor(hash).get(key, hash, now, reader);
+  }
+
+  /**
+   * Stores the value of a key, replacing any previous one and evicting the oldest entries of its
+   * segment as needed.
+   *
+   * @param key the key.
+   * @param value an array holding the value.
+   * @param valueLength the length of the value, from the start of the array.
+   * @param expiresAt when the entry expires, in epoch milliseconds.
+   * @return false if the entry is too large for a segment and was not stored.
+   */
+  public boolean put(byte[] key, byte[] value, int valueLength, long expiresAt) {
+    int hash = hash(key);
+    return segmentFor(hash).put(key, hash, value, valueLength, expiresAt);
+  }
+
+  /**
+   * Removes the entry of a key.
+   *
+   * @param key the key.
+   */
+  public void remove(byte[] key) {
+    int hash = hash(key);
+    segmentFor(hash).remove(key, hash);
+  }
+
+  /** Removes every entry. */
+  public void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * Returns the number of entries, including those expired but not evicted yet.
+   *
+   * @return the number of entries.
+   */
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of entries evicted to make room for others since the store was created.
+   *
+   * @return the number of evictions.
+   */
+  public long evictions() {
+    long evictions = 0;
+    for (Segment segment : segments) {
+      evictions += segment.evictions();
+    }
+    return evictions;
+  }
+
+  private Segment segmentFor(int hash) {
+    return segments[hash & (segments.length - 1)];
+  }
+
+  /** Hashes a key with the finalizer of MurmurHash3, so that its bits are evenly spread. */
+  private static int hash(byte[] key) {
+    int hash = Arrays.hashCode(key);
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  private static final class Segment {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ByteBuffer data;
+    private final int capacity;
+    private long[] index = new long[1 << INITIAL_INDEX_BITS];
+    private int indexBits = INITIAL_INDEX_BITS;
+    private int entries;
+    private long evictions;
+
+    /** Offset of the oldest entry of the log. */
+    private int head;
+
+    /** Offset the next entry is appended at. */
+    private int tail;
+
+    /** End of the entries at the end of the buffer, once the log has wrapped around. */
+    private int limit;
+
+    /** Whether the log has wrapped around, its entries being in [head, limit) and [0, tail). */
+    private boolean wrapped;
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+      this.data = ByteBuffer.allocateDirect(capacity);
+    }
+
+    <T> T get(byte[] key, int hash, long now, Function<ByteBuffer, T> reader) {
+      lock.readLock().lock();
+      try {
+        int slot = find(key, hash);
+        if (slot < 0) {
+          return null;
+        }
+        int offset = offsetOf(index[slot]);
+        if (now >= data.getLong(offset + EXPIRES_AT)) {
+          return null;
+        }
+        int keyLength = data.getInt(offset + KEY_LENGTH);
+        int valueLength = data.getInt(offset + VALUE_LENGTH);
+        return reader.apply(
+            data.slice(offset + HEADER_SIZE + keyLength, valueLength).asReadOnlyBuffer());
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    boolean put(byte[] key, int hash, byte[] value, int valueLength, long expiresAt) {
+      int length = HEADER_SIZE + key.length + valueLength;
+      if (length > capacity) {
+        return false;
+      }
+      lock.writeLock().lock();
+      try {
+        int slot = find(key, hash);
+        if (slot >= 0) {
+          removeAt(slot);
+        }
+        int offset = allocate(length);
+        data.putInt(offset + LENGTH, length);
+        data.putInt(offset + HASH, hash);
+        data.putInt(offset + KEY_LENGTH, key.length);
+        data.putInt(offset + VALUE_LENGTH, valueLength);
+        data.putLong(offset + EXPIRES_AT, expiresAt);
+        data.put(offset + HEADER_SIZE, key);
+        data.put(offset + HEADER_SIZE + key.length, value, 0, valueLength);
+        insert(hash, offset);
+        return true;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void remove(byte[] key, int hash) {
+      lock.writeLock().lock();
+      try {
+        int slot = find(key, hash);
+        if (slot >= 0) {
+          removeAt(slot);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void clear() {
+      lock.writeLock().lock();
+      try {
+        Arrays.fill(index, 0L);
+        entries = 0;
+        head = 0;
+        tail = 0;
+        limit = 0;
+        wrapped = false;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    long size() {
+      lock.readLock().lock();
+      try {
+        return entries;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    long evictions() {
+      lock.readLock().lock();
+      try {
+        return evictions;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    /** Reserves room for an entry at the tail of the log, evicting the oldest entries. */
+    private int allocate(int length) {
+      while (true) {
+        if (!wrapped) {
+          if (capacity - tail >= length) {
+            break;
+          }
+          limit = tail;
+          tail = 0;
+          wrapped = true;
+        } else if (head - tail >= length) {
+          break;
+        } else {
+          evictHead();
+        }
+      }
+      int offset = tail;
+      tail += length;
+      return offset;
+    }
+
+    private void evictHead() {
+      if (head < limit) {
+        int length = data.getInt(head + LENGTH);
+        int hash = data.getInt(head + HASH);
+        int slot = slotOf(hash);
+        for (long packed = index[slot]; packed != 0; packed = index[slot]) {
+          if (offsetOf(packed) == head) {
+            removeAt(slot);
+            evictions++;
+            break;
+          }
+          slot = (slot + 1) & (index.length - 1);
+        }
+        head += length;
+      }
+      if (head >= limit) {
+        head = 0;
+        wrapped = false;
+      }
+    }
+
+    private int find(byte[] key, int hash) {
+      int mask = index.length - 1;
+      for (int slot = slotOf(hash); ; slot = (slot + 1) & mask) {
+        long packed = index[slot];
+        if (packed == 0) {
+          return -1;
+        }
+        if ((int) (packed >>> 32) == hash && keyEquals(offsetOf(packed), key)) {
+          return slot;
+        }
+      }
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+      if (data.getInt(offset + KEY_LENGTH) != key.length) {
+        return false;
+      }
+      int start = offset + HEADER_SIZE;
+      for (int i = 0; i < key.length; i++) {
+        if (data.get(start + i) != key[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void insert(int hash, int offset) {
+      if ((entries + 1) * 4L > index.length * 3L) {
+        resize();
+      }
+      int mask = index.length - 1;
+      int slot = slotOf(hash);
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      index[slot] = pack(hash, offset);
+      entries++;
+    }
+
+    /** Empties a slot, shifting back the entries probing past it so that they stay reachable. */
+    private void removeAt(int slot) {
+      int mask = index.length - 1;
+      int hole = slot;
+      for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+        int home = slotOf((int) (index[next] >>> 32));
+        boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+        if (!stays) {
+          index[hole] = index[next];
+          hole = next;
+        }
+      }
+      index[hole] = 0;
+      entries--;
+    }
+
+    private void resize() {
+      long[] previous = index;
+      indexBits++;
+      index = new long[1 << indexBits];
+      int mask = index.length - 1;
+      for (long packed : previous) {
+        if (packed != 0) {
+          int slot = slotOf((int) (packed >>> 32));
+          while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+          }
+          index[slot] = packed;
+        }
+      }
+    }
+
+    /**
+     * Returns the home slot of a hash, from its high bits after Fibonacci hashing, as the low bits
+     * select the segment.
+     */
+    private int slotOf(int hash) {
+      return (hash * 0x9e3779b9) >>> (32 - indexBits);
+    }
+
+    private static long pack(int hash, int offset) {
+      return ((long) hash << 32) | (offset + 1L);
+    }
+
+    private static int offsetOf(long packed) {
+      return (int) packed - 1;
+    }
+  }
+}
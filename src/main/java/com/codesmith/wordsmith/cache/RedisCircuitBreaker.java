@@ -0,0 +1,185 @@
+package com.codesmith.wordsmith.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker guarding the calls the caches make to Redis.
+ *
+ * <p>While the circuit is closed, calls go to Redis. A call that fails, or succeeds slower than
+ * {@code cache.circuit-breaker.slow-call-threshold}, counts as a failure; after {@code
+ * failure-threshold} failures in a row the circuit opens. While it is open, calls are not made and
+ * the caller's fallback is used instead, so an outage costs no connection timeouts. Once {@code
+ * open-duration} has passed, a single trial call is let through: the circuit closes if it
+ * succeeds, and opens again otherwise.
+ *
+ * <p>State changes are lock-free, so checking the circuit costs no more than reading a field.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+  /** State of the circuit. */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long slowCallThreshold;
+  private final long openDuration;
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+  private final Counter rejected;
+  private volatile long openedAt;
+  private volatile Instant lastTransition = Instant.now();
+
+  public RedisCircuitBreaker(
+      MeterRegistry meterRegistry,
+      @Value("${cache.circuit-breaker.failure-threshold:5}") int failureThreshold,
+      @Value("${cache.circuit-breaker.slow-call-threshold:100ms}") Duration slowCallThreshold,
+      @Value("${cache.circuit-breaker.open-duration:10s}") Duration openDuration) {
+    this.failureThreshold = failureThreshold;
+    this.slowCallThreshold = slowCallThreshold.toNanos();
+    this.openDuration = openDuration.toNanos();
+    for (State target : State.values()) {
+      transitions.put(
+          target,
+          Counter.builder("cache.circuit.transitions")
+              .description("Transitions of the Redis circuit breaker")
+              .tag("state", target.name().toLowerCase())
+              .register(meterRegistry));
+    }
+    this.rejected =
+        Counter.builder("cache.circuit.rejected")
+            .description("Redis calls skipped because the circuit was open")
+            .register(meterRegistry);
+    Gauge.builder("cache.circuit.state", state, current -> current.get().ordinal())
+        .description("State of the Redis circuit breaker: 0 closed, 1 open, 2 half-open")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Makes a call to Redis through the circuit, falling back when the circuit is open or the call
+   * fails.
+   *
+   * @param call the call to Redis.
+   * @param fallback supplies the result when Redis is not called or the call fails.
+   * @param <T> the type of the result.
+   * @return the result of the call, or of the fallback.
+   */
+  public <T> T execute(Supplier<T> call, Supplier<T> fallback) {
+    if (!tryAcquirePermission()) {
+      rejected.increment();
+      return fallback.get();
+    }
+    long start = System.nanoTime();
+    T result;
+    try {
+      result = call.get();
+    } catch (RuntimeException exception) {
+      onFailure();
+      log.debug("Redis call failed, falling back", exception);
+      return fallback.get();
+    }
+    if (System.nanoTime() - start > slowCallThreshold) {
+      onFailure();
+    } else {
+      onSuccess();
+    }
+    return result;
+  }
+
+  /**
+   * Reports whether a call made now would be let through, without taking the trial of a half-open
+   * circuit.
+   *
+   * @return true if the circuit is closed, or open for longer than {@code open-duration}.
+   */
+  public boolean isCallPermitted() {
+    State current = state.get();
+    return current == State.CLOSED
+        || current == State.OPEN && System.nanoTime() - openedAt >= openDuration;
+  }
+
+  /**
+   * Returns the state of the circuit.
+   *
+   * @return the current state.
+   */
+  public State getState() {
+    return state.get();
+  }
+
+  /**
+   * Returns the number of failed calls since the last successful one.
+   *
+   * @return the number of consecutive failures.
+   */
+  public int getConsecutiveFailures() {
+    return consecutiveFailures.get();
+  }
+
+  /**
+   * Returns when the circuit last changed state.
+   *
+   * @return the time of the last transition.
+   */
+  public Instant getLastTransition() {
+    return lastTransition;
+  }
+
+  private boolean tryAcquirePermission() {
+    State current = state.get();
+    if (current == State.CLOSED) {
+      return true;
+    }
+    return current == State.OPEN
+        && System.nanoTime() - openedAt >= openDuration
+        && transition(State.OPEN, State.HALF_OPEN);
+  }
+
+  private void onSuccess() {
+    consecutiveFailures.set(0);
+    if (transition(State.HALF_OPEN, State.CLOSED)) {
+      log.info("Redis is reachable again, closing the cache circuit");
+    }
+  }
+
+  private void onFailure() {
+    int failures = consecutiveFailures.incrementAndGet();
+    State current = state.get();
+    if ((current == State.HALF_OPEN || current == State.CLOSED && failures >= failureThreshold)
+        && transition(current, State.OPEN)) {
+      log.warn("Redis is failing, opening the cache circuit after {} failures", failures);
+    }
+  }
+
+  private boolean transition(State from, State to) {
+    if (to == State.OPEN) {
+      // Set before the state, so that no caller sees the circuit open since an earlier time
+      openedAt = System.nanoTime();
+    }
+    if (!state.compareAndSet(from, to)) {
+      return false;
+    }
+    lastTransition = Instant.now();
+    transitions.get(to).increment();
+    return true;
+  }
+}
@@ -0,0 +1,39 @@
+package com.codesmith.wordsmith.cache;
+
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the state of the {@link RedisCircuitBreaker}, at {@code
+ * /actuator/cachecircuit} once included in {@code management.endpoints.web.exposure.include}.
+ *
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "cachecircuit")
+@RequiredArgsConstructor
+public class RedisCircuitBreakerEndpoint {
+
+  private final RedisCircuitBreaker circuitBreaker;
+
+  @ReadOperation
+  public CircuitState circuit() {
+    return new CircuitState(
+        circuitBreaker.getState(),
+        circuitBreaker.getConsecutiveFailures(),
+        circuitBreaker.getLastTransition());
+  }
+
+  /**
+   * State of the circuit as reported by the endpoint.
+   *
+   * @param state the state of the circuit.
+   * @param consecutiveFailures the number of failed Redis calls since the last successful one.
+   * @param lastTransition when the circuit last changed state.
+   */
+  public record CircuitState(
+      RedisCircuitBreaker.State state, int consecutiveFailures, Instant lastTransition) {}
+}
@@ -0,0 +1,288 @@
+package com.codesmith.wordsmith.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Cache decorator that keeps a Redis cache usable while Redis is down.
+ *
+ * <p>Every call to the Redis cache goes through the {@link RedisCircuitBreaker}. When the circuit
+ * is open or a call fails, the cache falls back to a bounded, short-lived local cache, so that
+ * lookups are served from memory or, on a miss, by the loader, at the cost of a database query
+ * rather than a failed request.
+ *
+ * <p>Keys written or evicted while Redis could not be reached are remembered, up to the size of
+ * the local cache, beyond which the whole cache is marked for clearing. Once the circuit lets calls
+ * through again, they are evicted from Redis, which may still hold the values they had before, in
+ * the background and with a single batch. Until then the cache keeps serving every call from the
+ * local cache, and the reconciliation is the trial call of the half-open circuit, so no request
+ * waits for it or reads the stale values. The local cache is emptied once Redis is reconciled.
+ *
+ * @version 1.0
+ */
+@Slf4j
+public class ResilientCache implements Cache {
+
+  private final Cache delegate;
+  private final RedisCircuitBreaker circuitBreaker;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+  private final long maximumSize;
+  private final Consumer<Collection<Object>> evictAll;
+  private final Executor executor;
+  private final Set<Object> dirtyKeys = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean degraded = new AtomicBoolean();
+  private final AtomicBoolean reconciling = new AtomicBoolean();
+  private volatile boolean cleared;
+
+  /**
+   * Decorates a cache.
+   *
+   * @param delegate the Redis cache to decorate.
+   * @param circuitBreaker the circuit breaker guarding the calls to Redis.
+   * @param maximumSize the maximum number of entries of the local cache.
+   * @param timeToLive how long the local cache keeps an entry.
+   * @param evictAll evicts a batch of keys from the Redis cache, throwing if it cannot.
+   * @param executor runs the reconciliation of Redis after an outage.
+   */
+  public ResilientCache(
+      Cache delegate,
+      RedisCircuitBreaker circuitBreaker,
+      long maximumSize,
+      Duration timeToLive,
+      Consumer<Collection<Object>> evictAll,
+      Executor executor) {
+    this.delegate = delegate;
+    this.circuitBreaker = circuitBreaker;
+    this.maximumSize = maximumSize;
+    this.evictAll = evictAll;
+    this.executor = executor;
+    this.local =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).build();
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return call(
+        () -> delegate.get(key),
+        () -> {
+          Object value = local.getIfPresent(key);
+          if (value == null) {
+            return null;
+          }
+          return new SimpleValueWrapper(NullValue.INSTANCE.equals(value) ? null : value);
+        });
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper cached = get(key);
+    Object value = cached == null ? null : cached.get();
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  /**
+   * Returns the cached value, or loads and caches it.
+   *
+   * <p>Unlike the Redis cache, loads are not synchronized: a {@link SingleFlightCache} in front of
+   * this one coalesces them per key.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper cached = get(key);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+    T value;
+    try {
+      value = valueLoader.call();
+    } catch (Exception exception) {
+      throw new ValueRetrievalException(key, valueLoader, exception);
+    }
+    put(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    call(
+        () -> {
+          delegate.put(key, value);
+          return null;
+        },
+        () -> {
+          local.put(key, value == null ? NullValue.INSTANCE : value);
+          markDirty(key);
+          return null;
+        });
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    ValueWrapper existing = get(key);
+    if (existing == null) {
+      put(key, value);
+    }
+    return existing;
+  }
+
+  @Override
+  public void evict(Object key) {
+    call(
+        () -> {
+          delegate.evict(key);
+          return null;
+        },
+        () -> {
+          local.invalidate(key);
+          markDirty(key);
+          return null;
+        });
+  }
+
+  @Override
+  public void clear() {
+    call(
+        () -> {
+          delegate.clear();
+          return null;
+        },
+        () -> {
+          local.invalidateAll();
+          cleared = true;
+          return null;
+        });
+  }
+
+  /**
+   * Calls Redis through the circuit breaker, marking the cache degraded when falling back. While it
+   * is degraded, calls are served by the fallback alone, and Redis is reconciled in the background
+   * as soon as the circuit lets a call through.
+   */
+  private <T> T call(Supplier<T> redisCall, Supplier<T> fallback) {
+    if (degraded.get()) {
+      if (circuitBreaker.isCallPermitted() && reconciling.compareAndSet(false, true)) {
+        startReconciliation();
+      }
+      return fallback.get();
+    }
+    return circuitBreaker.execute(
+        redisCall,
+        () -> {
+          degraded.set(true);
+          return fallback.get();
+        });
+  }
+
+  private void markDirty(Object key) {
+    if (cleared) {
+      return;
+    }
+    dirtyKeys.add(key);
+    if (dirtyKeys.size() > maximumSize) {
+      cleared = true;
+      dirtyKeys.clear();
+    }
+  }
+
+  private void startReconciliation() {
+    try {
+      executor.execute(this::reconcile);
+    } catch (RejectedExecutionException exception) {
+      reconciling.set(false);
+      log.warn("Failed to schedule the reconciliation of cache {}", getName(), exception);
+    }
+  }
+
+  /**
+   * Evicts the keys written during the outage from Redis, then serves calls from Redis again. Keys
+   * written by calls that were already falling back when the cache was restored are evicted last.
+   */
+  private void reconcile() {
+    try {
+      if (!flush()) {
+        return;
+      }
+      degraded.set(false);
+      if (!flush()) {
+        degraded.set(true);
+        return;
+      }
+      local.invalidateAll();
+      log.debug("Reconciled cache {} with Redis after an outage", getName());
+    } catch (RuntimeException exception) {
+      log.warn("Failed to reconcile cache {} after a Redis outage", getName(), exception);
+    } finally {
+      reconciling.set(false);
+    }
+  }
+
+  /**
+   * Clears Redis or evicts the dirty keys from it until none is left.
+   *
+   * @return true if Redis was reconciled, false if it could not be reached.
+   */
+  private boolean flush() {
+    while (cleared || !dirtyKeys.isEmpty()) {
+      if (cleared) {
+        // Reset first: keys written while Redis is cleared are marked dirty again
+        cleared = false;
+        if (!execute(delegate::clear)) {
+          cleared = true;
+          return false;
+        }
+      }
+      List<Object> keys = new ArrayList<>();
+      for (Object key : dirtyKeys) {
+        if (dirtyKeys.remove(key)) {
+          keys.add(key);
+        }
+      }
+      if (!keys.isEmpty() && !execute(() -> evictAll.accept(keys))) {
+        dirtyKeys.addAll(keys);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Runs a call to Redis through the circuit breaker, telling whether it succeeded. */
+  private boolean execute(Runnable redisCall) {
+    return circuitBreaker.execute(
+        () -> {
+          redisCall.run();
+          return true;
+        },
+        () -> false);
+  }
+}
@@ -0,0 +1,447 @@
+package com.codesmith.wordsmith.cache;
+
+import com.codesmith.wordsmith.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Cache decorator that loads each missing entry once, however many callers ask for it at the same
+ * time.
+ *
+ * <p>Used by {@code @Cacheable(sync = true)} methods through {@link #get(Object, Callable)}. On a
+ * node, the first caller missing a key runs the loader and the callers arriving while it runs wait
+ * for its result instead of running the loader too. Unlike the synchronized loading of the Redis
+ * cache itself, callers of different keys never wait for each other.
+ *
+ * <p>With a lease, the nodes also agree on which of them loads a key: the node that takes the
+ * lease in Redis runs the loader, and the others poll the cache until the entry shows up or the
+ * lease wait runs out, in which case they load the entry themselves. The lease expires on its own
+ * if its holder dies. Redis errors, and an open {@link RedisCircuitBreaker}, fail open: the node
+ * loads the entry.
+ *
+ * <p>With refresh enabled, values are stored as {@link CacheEntry CacheEntries} recording their
+ * compute cost and when they go stale. Readers of an entry close to going stale may refresh it
+ * early, with a probability that grows as the expiry nears, and readers of a stale entry still
+ * kept in Redis refresh it. Either way the refresh runs in the background, once per key, while the
+ * current value is served, so hot keys do not miss when they expire. Refreshes load the entry with
+ * the {@link CacheLoader} of the cache, and store it only if the entry they set out to refresh is
+ * still cached and was not written to on this node in the meantime, so that they never overwrite
+ * a newer value put or evicted by {@code @CachePut} or {@code @CacheEvict}.
+ *
+ * <p>Loads failing with a {@link ResourceNotFoundException} are remembered with a {@link
+ * NegativeEntry}, which Redis keeps for a short time. Until then, lookups of the key fail again
+ * with the same message without running the loader.
+ *
+ * <p>Loaded entries are stored with {@link FillableCache#fill(Cache, Object, Object)}, so that
+ * caches announcing their changes to other nodes do not announce them; only {@link #put(Object,
+ * Object)}, {@link #evict(Object)} and the other writes do.
+ *
+ * @version 1.0
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+  private static final String LEASE_KEY_PREFIX = "cache-lease:";
+  private static final Duration LEASE_POLL_INTERVAL = Duration.ofMillis(20);
+
+  /** Deletes the lease only if it is still held by the caller. */
+  private static final RedisScript<Long> RELEASE_SCRIPT =
+      RedisScript.of(
+          """
+          if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+          end
+          return 0
+          """,
+          Long.class);
+
+  private final Cache delegate;
+  private final StringRedisTemplate redisTemplate;
+  private final RedisCircuitBreaker circuitBreaker;
+  private final Lease lease;
+  private final Refresh refresh;
+  private final boolean negativeCaching;
+  private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<Object, Refreshing> refreshing = new ConcurrentHashMap<>();
+  private final Counter coalesced;
+  private final Counter earlyRefreshes;
+  private final Counter staleRefreshes;
+  private final Counter staleServed;
+  private final Counter avoidedMisses;
+
+  /**
+   * Decorates a cache.
+   *
+   * @param delegate the cache to decorate.
+   * @param redisTemplate the template used to take leases.
+   * @param circuitBreaker the circuit breaker guarding the calls to Redis made for leases.
+   * @param lease the lease settings, or {@code null} to coalesce loads on this node only.
+   * @param refresh the refresh settings, or {@code null} to let entries expire.
+   * @param negativeCaching whether to cache that keys were not found.
+   * @param meterRegistry the registry the loads and refreshes are counted in.
+   */
+  public SingleFlightCache(
+      Cache delegate,
+      StringRedisTemplate redisTemplate,
+      RedisCircuitBreaker circuitBreaker,
+      Lease lease,
+      Refresh refresh,
+      boolean negativeCaching,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.redisTemplate = redisTemplate;
+    this.circuitBreaker = circuitBreaker;
+    this.lease = lease;
+    this.refresh = refresh;
+    this.negativeCaching = negativeCaching;
+    this.coalesced =
+        Counter.builder("cache.loads.coalesced")
+            .description("Cache misses served by a load already running for the same key")
+            .tag("cache", delegate.getName())
+            .register(meterRegistry);
+    this.earlyRefreshes = refreshCounter(meterRegistry, "early");
+    this.staleRefreshes = refreshCounter(meterRegistry, "stale");
+    this.staleServed =
+        Counter.builder("cache.stale.served")
+            .description("Stale cache entries served while they are refreshed")
+            .tag("cache", delegate.getName())
+            .register(meterRegistry);
+    this.avoidedMisses =
+        Counter.builder("cache.misses.avoided")
+            .description("Cache entries refreshed in the background before any reader missed them")
+            .tag("cache", delegate.getName())
+            .register(meterRegistry);
+  }
+
+  private Counter refreshCounter(MeterRegistry meterRegistry, String trigger) {
+    return Counter.builder("cache.refreshes")
+        .description("Background refreshes of cache entries")
+        .tag("cache", delegate.getName())
+        .tag("trigger", trigger)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return unwrap(delegate.get(key));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper cached = get(key);
+    Object value = cached == null ? null : cached.get();
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper cached = delegate.get(key);
+    if (cached != null && cached.get() instanceof NegativeEntry negative) {
+      throw new ResourceNotFoundException(negative.message());
+    }
+    if (cached != null) {
+      if (cached.get() instanceof CacheEntry entry && refresh != null) {
+        long now = System.currentTimeMillis();
+        if (entry.isStale(now)) {
+          staleServed.increment();
+          refreshInBackground(key, entry, staleRefreshes);
+        } else if (entry.shouldRefreshEarly(
+            now, refresh.beta(), 1 - ThreadLocalRandom.current().nextDouble())) {
+          refreshInBackground(key, entry, earlyRefreshes);
+        }
+      }
+      return (T) CacheEntry.unwrap(cached.get());
+    }
+
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      coalesced.increment();
+      try {
+        return (T) running.join();
+      } catch (CompletionException exception) {
+        // Rethrow the failure of the load, still wrapped as the caller that ran it saw it
+        if (exception.getCause() instanceof RuntimeException failure) {
+          throw failure;
+        }
+        throw exception;
+      }
+    }
+
+    try {
+      T value = lease == null ? loadAndPut(key, valueLoader) : loadUnderLease(key, valueLoader);
+      flight.complete(value);
+      return value;
+    } catch (RuntimeException | Error exception) {
+      flight.completeExceptionally(exception);
+      throw exception;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    overwrite(key);
+    delegate.put(key, wrap(value, 0));
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    overwrite(key);
+    return unwrap(delegate.putIfAbsent(key, wrap(value, 0)));
+  }
+
+  @Override
+  public void evict(Object key) {
+    overwrite(key);
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    overwrite(key);
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    refreshing.keySet().forEach(this::overwrite);
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    refreshing.keySet().forEach(this::overwrite);
+    return delegate.invalidate();
+  }
+
+  /**
+   * Loads the entry if this node takes the lease, otherwise waits for the node holding it.
+   *
+   * <p>The cache is checked again once the lease is taken, since the previous holder may have
+   * filled it in between.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T loadUnderLease(Object key, Callable<T> valueLoader) {
+    String leaseKey = LEASE_KEY_PREFIX + getName() + "::" + key;
+    String token = UUID.randomUUID().toString();
+    if (tryAcquire(leaseKey, token)) {
+      try {
+        ValueWrapper cached = get(key);
+        return cached != null ? (T) cached.get() : loadAndPut(key, valueLoader);
+      } finally {
+        release(leaseKey, token);
+      }
+    }
+
+    long deadline = System.nanoTime() + lease.waitTime().toNanos();
+    while (System.nanoTime() - deadline < 0) {
+      LockSupport.parkNanos(LEASE_POLL_INTERVAL.toNanos());
+      ValueWrapper cached = get(key);
+      if (cached != null) {
+        return (T) cached.get();
+      }
+    }
+    return loadAndPut(key, valueLoader);
+  }
+
+  /**
+   * Reloads an entry on the refresh executor, unless a load of the key is already running. With a
+   * lease, the refresh is skipped when another node holds the lease, since it is refreshing the
+   * entry already.
+   */
+  private void refreshInBackground(Object key, CacheEntry current, Counter trigger) {
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    if (inFlight.putIfAbsent(key, flight) != null) {
+      return;
+    }
+    Refreshing state = new Refreshing();
+    refreshing.put(key, state);
+    try {
+      refresh.executor().execute(() -> refresh(key, current, state, flight));
+      trigger.increment();
+    } catch (RejectedExecutionException exception) {
+      refreshing.remove(key, state);
+      inFlight.remove(key, flight);
+      flight.cancel(false);
+    }
+  }
+
+  private void refresh(
+      Object key, CacheEntry current, Refreshing state, CompletableFuture<Object> flight) {
+    String leaseKey = LEASE_KEY_PREFIX + getName() + "::" + key;
+    String token = UUID.randomUUID().toString();
+    boolean leased = lease != null;
+    try {
+      if (leased && !tryAcquire(leaseKey, token)) {
+        leased = false;
+        flight.complete(current.value());
+        return;
+      }
+      flight.complete(
+          load(
+              key,
+              () -> refresh.loader().load(key),
+              entry -> fillIfUnchanged(key, current, state, entry)));
+      avoidedMisses.increment();
+    } catch (RuntimeException | Error exception) {
+      log.warn("Failed to refresh entry {} of cache {}", key, getName(), exception);
+      flight.completeExceptionally(exception);
+    } finally {
+      refreshing.remove(key, state);
+      inFlight.remove(key, flight);
+      if (leased) {
+        release(leaseKey, token);
+      }
+    }
+  }
+
+  /**
+   * Stores a refreshed entry, unless the key was written to on this node since the refresh started
+   * or no longer holds the entry refreshed, having been evicted or rewritten by any node.
+   */
+  private void fillIfUnchanged(Object key, CacheEntry current, Refreshing state, Object entry) {
+    state.lock.lock();
+    try {
+      if (state.overwritten) {
+        return;
+      }
+      ValueWrapper cached = delegate.get(key);
+      if (cached != null && current.equals(cached.get())) {
+        FillableCache.fill(delegate, key, entry);
+      }
+    } finally {
+      state.lock.unlock();
+    }
+  }
+
+  /** Marks the refresh of a key in progress, if any, as overwritten by a write to the key. */
+  private void overwrite(Object key) {
+    Refreshing state = refreshing.get(key);
+    if (state != null) {
+      state.lock.lock();
+      try {
+        state.overwritten = true;
+      } finally {
+        state.lock.unlock();
+      }
+    }
+  }
+
+  private <T> T loadAndPut(Object key, Callable<T> valueLoader) {
+    return load(key, valueLoader, entry -> FillableCache.fill(delegate, key, entry));
+  }
+
+  /** Runs a loader, handing its value to {@code fill} as it is to be cached. */
+  private <T> T load(Object key, Callable<T> valueLoader, Consumer<Object> fill) {
+    long start = System.nanoTime();
+    T value;
+    try {
+      value = valueLoader.call();
+    } catch (Exception exception) {
+      Throwable failure =
+          exception instanceof CacheOperationInvoker.ThrowableWrapper wrapper
+              ? wrapper.getOriginal()
+              : exception;
+      if (negativeCaching && failure instanceof ResourceNotFoundException notFound) {
+        fill.accept(new NegativeEntry(notFound.getMessage()));
+      }
+      throw new ValueRetrievalException(key, valueLoader, exception);
+    }
+    fill.accept(wrap(value, System.nanoTime() - start));
+    return value;
+  }
+
+  private Object wrap(Object value, long cost) {
+    return refresh == null ? value : CacheEntry.of(value, cost, refresh.timeToLive());
+  }
+
+  /** Unwraps the value of an entry; keys cached as not found read as misses. */
+  private static ValueWrapper unwrap(ValueWrapper cached) {
+    if (cached == null || cached.get() instanceof NegativeEntry) {
+      return null;
+    }
+    return cached.get() instanceof CacheEntry entry
+        ? new SimpleValueWrapper(entry.value())
+        : cached;
+  }
+
+  private boolean tryAcquire(String leaseKey, String token) {
+    return circuitBreaker.execute(
+        () ->
+            !Boolean.FALSE.equals(
+                redisTemplate.opsForValue().setIfAbsent(leaseKey, token, lease.time())),
+        () -> true);
+  }
+
+  private void release(String leaseKey, String token) {
+    circuitBreaker.execute(
+        () -> redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), token), () -> 0L);
+  }
+
+  /**
+   * Settings of the lease taken in Redis before loading an entry.
+   *
+   * @param time how long a lease is held at most, which should exceed the time a load takes.
+   * @param waitTime how long a node that did not get the lease waits for the entry before loading
+   *     it itself.
+   */
+  public record Lease(Duration time, Duration waitTime) {}
+
+  /**
+   * Settings of the background refresh of entries.
+   *
+   * @param timeToLive how long an entry is fresh; it is then served stale for as long as Redis
+   *     keeps it.
+   * @param beta how eagerly entries are refreshed before they go stale, 1 by default.
+   * @param executor the executor refreshes run on.
+   * @param loader the loader refreshes run.
+   */
+  public record Refresh(
+      Duration timeToLive, double beta, Executor executor, CacheLoader<Object, ?> loader) {}
+
+  /** Refresh of a key in progress, which writes to the key mark as overwritten. */
+  private static final class Refreshing {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean overwritten;
+  }
+}
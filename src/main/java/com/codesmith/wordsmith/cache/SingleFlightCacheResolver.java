@@ -0,0 +1,210 @@
+package com.codesmith.wordsmith.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the caches of cache operations, decorating the ones opted in to single-flight loading.
+ *
+ * <p>Every cache is wrapped in a {@link ResilientCache}, which falls back to a local cache of up
+ * to {@code cache.fallback.maximum-size} entries while Redis is unavailable. Caches listed in
+ * {@code cache.off-heap.cache-names} are then wrapped in an {@link OffHeapCache}, each keeping a
+ * local copy of up to {@code cache.off-heap.capacity} of entries, which the nodes drop for each
+ * other over the {@value #CHANNEL} channel when an entry changes. Caches listed in {@code
+ * cache.single-flight.cache-names} are finally wrapped in a {@link SingleFlightCache},
+ * which coalesces the loads of their {@code @Cacheable(sync = true)} methods. Setting {@code
+ * cache.single-flight.lease.enabled} also coalesces the loads across nodes with a lease in Redis,
+ * and {@code cache.refresh.enabled} keeps their hot entries fresh with background refreshes, run by
+ * the {@link CacheLoader} bean of each cache; entries of caches without one simply expire. Keys
+ * not found are cached for {@code cache.negative.time-to-live}. Every cache is timed as a whole by
+ * a {@link TimedCache}.
+ *
+ * @version 1.0
+ */
+@Component
+public class SingleFlightCacheResolver implements CacheResolver {
+
+  static final String CHANNEL = "cache-invalidations";
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final CacheManager cacheManager;
+  private final StringRedisTemplate redisTemplate;
+  private final MeterRegistry meterRegistry;
+  private final RedisCircuitBreaker circuitBreaker;
+  private final MultiGetCache multiGetCache;
+  private final long fallbackSize;
+  private final Duration fallbackTimeToLive;
+  private final Set<String> offHeapCacheNames;
+  private final long offHeapCapacity;
+  private final int offHeapSegments;
+  private final Duration offHeapTimeToLive;
+  private final Set<String> cacheNames;
+  private final SingleFlightCache.Lease lease;
+  private final ObjectProvider<CacheLoader<?, ?>> cacheLoaders;
+  private final boolean refreshEnabled;
+  private final double refreshBeta;
+  private final Duration timeToLive;
+  private final Executor executor;
+  private final boolean negativeCaching;
+  private final ConcurrentMap<String, Cache> decorated = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, OffHeapCache> offHeapCaches = new ConcurrentHashMap<>();
+
+  public SingleFlightCacheResolver(
+      CacheManager cacheManager,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      RedisCircuitBreaker circuitBreaker,
+      MultiGetCache multiGetCache,
+      RedisMessageListenerContainer listenerContainer,
+      ObjectProvider<CacheLoader<?, ?>> cacheLoaders,
+      @Value("${cache.fallback.maximum-size:10000}") long fallbackSize,
+      @Value("${cache.fallback.time-to-live:60s}") Duration fallbackTimeToLive,
+      @Value("${cache.off-heap.cache-names:post}") Set<String> offHeapCacheNames,
+      @Value("${cache.off-heap.capacity:256MB}") DataSize offHeapCapacity,
+      @Value("${cache.off-heap.segments:64}") int offHeapSegments,
+      @Value("${cache.off-heap.time-to-live:60s}") Duration offHeapTimeToLive,
+      @Value("${cache.single-flight.cache-names:post,comment,users}") Set<String> cacheNames,
+      @Value("${cache.single-flight.lease.enabled:false}") boolean leaseEnabled,
+      @Value("${cache.single-flight.lease.time:5s}") Duration leaseTime,
+      @Value("${cache.single-flight.lease.wait:200ms}") Duration leaseWait,
+      @Value("${cache.refresh.enabled:true}") boolean refreshEnabled,
+      @Value("${cache.refresh.beta:1.0}") double refreshBeta,
+      @Value("${spring.cache.redis.time-to-live:0}") Duration timeToLive,
+      @Value("${cache.negative.time-to-live:10s}") Duration negativeTimeToLive,
+      @Qualifier("applicationTaskExecutor") Executor executor) {
+    this.cacheManager = cacheManager;
+    this.redisTemplate = redisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.circuitBreaker = circuitBreaker;
+    this.multiGetCache = multiGetCache;
+    this.fallbackSize = fallbackSize;
+    this.fallbackTimeToLive = fallbackTimeToLive;
+    this.offHeapCacheNames = Set.copyOf(offHeapCacheNames);
+    this.offHeapCapacity = offHeapCapacity.toBytes();
+    this.offHeapSegments = offHeapSegments;
+    this.offHeapTimeToLive = offHeapTimeToLive;
+    this.cacheNames = Set.copyOf(cacheNames);
+    this.lease = leaseEnabled ? new SingleFlightCache.Lease(leaseTime, leaseWait) : null;
+    this.cacheLoaders = cacheLoaders;
+    this.refreshEnabled = refreshEnabled;
+    this.refreshBeta = refreshBeta;
+    this.timeToLive = timeToLive;
+    this.executor = executor;
+    this.negativeCaching = !negativeTimeToLive.isZero() && !negativeTimeToLive.isNegative();
+    listenerContainer.addMessageListener(
+        (message, pattern) -> onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+        new ChannelTopic(CHANNEL));
+  }
+
+  @Override
+  public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+    return context.getOperation().getCacheNames().stream()
+        .map(
+            name -> {
+              Cache cache = cacheManager.getCache(name);
+              if (cache == null) {
+                throw new IllegalArgumentException(
+                    "Cannot find cache named '" + name + "' for " + context.getOperation());
+              }
+              return decorated.computeIfAbsent(
+                  name, key -> new TimedCache(decorate(cache), meterRegistry));
+            })
+        .toList();
+  }
+
+  private Cache decorate(Cache cache) {
+    Cache decorated =
+        new ResilientCache(
+            cache,
+            circuitBreaker,
+            fallbackSize,
+            fallbackTimeToLive,
+            keys -> multiGetCache.evictAll(cache.getName(), keys),
+            executor);
+    if (offHeapCacheNames.contains(cache.getName())) {
+      OffHeapCache offHeap =
+          new OffHeapCache(
+              decorated,
+              new OffHeapStore(offHeapCapacity, offHeapSegments),
+              offHeapTimeToLive,
+              this::broadcast,
+              meterRegistry);
+      offHeapCaches.put(cache.getName(), offHeap);
+      decorated = offHeap;
+    }
+    if (!cacheNames.contains(cache.getName())) {
+      return decorated;
+    }
+    return new SingleFlightCache(
+        decorated,
+        redisTemplate,
+        circuitBreaker,
+        lease,
+        refresh(cache.getName()),
+        negativeCaching,
+        meterRegistry);
+  }
+
+  /** Returns the refresh settings of a cache, or null if it is not refreshed. */
+  @SuppressWarnings("unchecked")
+  private SingleFlightCache.Refresh refresh(String cacheName) {
+    if (!refreshEnabled) {
+      return null;
+    }
+    // Looked up on first use of the cache: the loaders are services using the caches
+    return cacheLoaders.orderedStream()
+        .filter(loader -> loader.cacheName().equals(cacheName))
+        .findFirst()
+        .map(
+            loader ->
+                new SingleFlightCache.Refresh(
+                    timeToLive, refreshBeta, executor, (CacheLoader<Object, ?>) loader))
+        .orElse(null);
+  }
+
+  /** Announces a change to an off-heap cache, as {@code node cache [key]}. */
+  private void broadcast(String cacheName, String key) {
+    String message = nodeId + " " + cacheName + (key == null ? "" : " " + key);
+    circuitBreaker.execute(
+        () -> {
+          redisTemplate.convertAndSend(CHANNEL, message);
+          return null;
+        },
+        () -> null);
+  }
+
+  private void onMessage(String message) {
+    String[] parts = message.split(" ", 3);
+    if (parts.length < 2 || parts[0].equals(nodeId)) {
+      return;
+    }
+    OffHeapCache cache = offHeapCaches.get(parts[1]);
+    if (cache == null) {
+      return;
+    }
+    if (parts.length == 2) {
+      cache.clearLocal();
+    } else {
+      cache.evictLocal(parts[2]);
+    }
+  }
+}
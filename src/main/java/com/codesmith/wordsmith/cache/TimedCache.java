@@ -0,0 +1,178 @@
+package com.codesmith.wordsmith.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache decorator timing every call to the cache it decorates.
+ *
+ * <p>Calls are recorded by the {@value #TIMER} timer, tagged with the name of the cache, the
+ * operation and, for lookups, whether they hit. When a lookup misses and runs its loader, the time
+ * spent loading is left out, so that the timer measures the cache alone; the loader is timed by the
+ * service and repository metrics. A lookup served by a load run for another caller counts as a hit.
+ * Each call is also recorded as a {@link CacheAccessEvent} when Flight Recorder is recording.
+ *
+ * @version 1.0
+ */
+public class TimedCache implements Cache {
+
+  static final String TIMER = "cache.calls";
+
+  private final Cache delegate;
+  private final Timer hits;
+  private final Timer misses;
+  private final Timer puts;
+  private final Timer evictions;
+  private final Timer clears;
+
+  /**
+   * Decorates a cache.
+   *
+   * @param delegate the cache to decorate.
+   * @param meterRegistry the registry of the timers.
+   */
+  public TimedCache(Cache delegate, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.hits = timer(meterRegistry, delegate.getName(), "get", "hit");
+    this.misses = timer(meterRegistry, delegate.getName(), "get", "miss");
+    this.puts = timer(meterRegistry, delegate.getName(), "put", "none");
+    this.evictions = timer(meterRegistry, delegate.getName(), "evict", "none");
+    this.clears = timer(meterRegistry, delegate.getName(), "clear", "none");
+  }
+
+  /**
+   * Returns the timer of an operation on a cache.
+   *
+   * @param meterRegistry the registry of the timer.
+   * @param cacheName the name of the cache.
+   * @param operation the operation.
+   * @param result {@code hit} or {@code miss} for lookups, {@code none} otherwise.
+   * @return the timer.
+   */
+  static Timer timer(
+      MeterRegistry meterRegistry, String cacheName, String operation, String result) {
+    return Timer.builder(TIMER)
+        .description("Time spent in calls to a cache, loads excluded")
+        .tag("cache", cacheName)
+        .tag("operation", operation)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    CacheAccessEvent event = CacheAccessEvent.start(getName(), "get", key);
+    try {
+      long start = System.nanoTime();
+      ValueWrapper cached = delegate.get(key);
+      (cached == null ? misses : hits).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      event.result = cached == null ? "miss" : "hit";
+      return cached;
+    } finally {
+      event.finish();
+    }
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    CacheAccessEvent event = CacheAccessEvent.start(getName(), "get", key);
+    try {
+      long start = System.nanoTime();
+      T value = delegate.get(key, type);
+      (value == null ? misses : hits).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      event.result = value == null ? "miss" : "hit";
+      return value;
+    } finally {
+      event.finish();
+    }
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    CacheAccessEvent event = CacheAccessEvent.start(getName(), "get", key);
+    long[] loading = new long[2];
+    long start = System.nanoTime();
+    try {
+      return delegate.get(
+          key,
+          () -> {
+            long loadStart = System.nanoTime();
+            try {
+              return valueLoader.call();
+            } finally {
+              loading[0] += System.nanoTime() - loadStart;
+              loading[1]++;
+            }
+          });
+    } finally {
+      long elapsed = System.nanoTime() - start - loading[0];
+      (loading[1] == 0 ? hits : misses).record(Math.max(elapsed, 0), TimeUnit.NANOSECONDS);
+      event.result = loading[1] == 0 ? "hit" : "miss";
+      event.finish();
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    call(puts, "put", key, () -> delegate.put(key, value));
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    return call(puts, "put", key, () -> delegate.putIfAbsent(key, value));
+  }
+
+  @Override
+  public void evict(Object key) {
+    call(evictions, "evict", key, () -> delegate.evict(key));
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    Boolean present = call(evictions, "evict", key, () -> delegate.evictIfPresent(key));
+    return Boolean.TRUE.equals(present);
+  }
+
+  @Override
+  public void clear() {
+    call(clears, "clear", null, delegate::clear);
+  }
+
+  @Override
+  public boolean invalidate() {
+    Boolean invalidated = call(clears, "clear", null, delegate::invalidate);
+    return Boolean.TRUE.equals(invalidated);
+  }
+
+  private void call(Timer timer, String operation, Object key, Runnable call) {
+    CacheAccessEvent event = CacheAccessEvent.start(getName(), operation, key);
+    try {
+      timer.record(call);
+    } finally {
+      event.finish();
+    }
+  }
+
+  private <T> T call(Timer timer, String operation, Object key, Supplier<T> call) {
+    CacheAccessEvent event = CacheAccessEvent.start(getName(), operation, key);
+    try {
+      return timer.record(call);
+    } finally {
+      event.finish();
+    }
+  }
+}
@@ -1,11 +1,9 @@
 package com.codesmith.wordsmith.category;
 
 import com.codesmith.wordsmith.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 /**
@@ -16,30 +14,30 @@ import org.springframework.stereotype.Service;
  * through {@link CategoryRepository} and uses {@link CategoryMapper} to map
  * between entities and DTOs.</p>
  *
+ * <p>Reads are served from the {@link CategorySnapshot} without any I/O, and every write is
+ * applied to the snapshot of each node.</p>
+ *
  * <p>Annotated with {@link Service} to denote it as a service component in the Spring context,
  * allowing for dependency injection.</p>
  *
  * @version 1.0
  */
 @Service
+@Timed("service.invocations")
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
+    private final CategorySnapshot categorySnapshot;
 
     /**
      * Retrieves a list of all categories.
      *
      * @return a list of {@link CategoryResponseDto} representing all categories.
      */
-    @Cacheable(value = "categories")
     public List<CategoryResponseDto> getAllCategories() {
-        return categoryRepository
-                .findAll()
-                .stream()
-                .map(categoryMapper::toDto)
-                .toList();
+        return categorySnapshot.getAll();
     }
 
     /**
@@ -49,13 +47,10 @@ public class CategoryService {
      * @return a {@link CategoryResponseDto} representing the category with the given ID.
      * @throws ResourceNotFoundException if no category is found with the provided ID.
      */
-    @Cacheable(value = "categories", key = "#categoryId")
     public CategoryResponseDto getCategoryById(Integer categoryId) {
-        Category category = categoryRepository
-                .findById(categoryId)
+        return categorySnapshot
+                .get(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
-
-        return categoryMapper.toDto(category);
     }
 
     /**
@@ -67,7 +62,9 @@ public class CategoryService {
     public CategoryResponseDto createCategory(CategoryRequestDto categoryRequestDto) {
         Category category = categoryMapper.toEntity(categoryRequestDto);
         Category savedCategory = categoryRepository.save(category);
-        return categoryMapper.toDto(savedCategory);
+        CategoryResponseDto categoryResponseDto = categoryMapper.toDto(savedCategory);
+        categorySnapshot.put(categoryResponseDto);
+        return categoryResponseDto;
     }
 
     /**
@@ -78,7 +75,6 @@ public class CategoryService {
      * @return a {@link CategoryResponseDto} representing the updated category.
      * @throws ResourceNotFoundException if no category is found with the provided ID.
      */
-    @CachePut(value = "categories", key = "#categoryId")
     public CategoryResponseDto updateCategory(Integer categoryId, CategoryRequestDto categoryRequestDto) {
         Category category = categoryRepository
                 .findById(categoryId)
@@ -88,7 +84,9 @@ public class CategoryService {
         category.setDescription(categoryRequestDto.description());
 
         Category savedCategory = categoryRepository.save(category);
-        return categoryMapper.toDto(savedCategory);
+        CategoryResponseDto categoryResponseDto = categoryMapper.toDto(savedCategory);
+        categorySnapshot.put(categoryResponseDto);
+        return categoryResponseDto;
     }
 
     /**
@@ -96,8 +94,8 @@ public class CategoryService {
      *
      * @param categoryId the ID of the category to delete.
      */
-    @CacheEvict(value = "categories", key = "#categoryId")
     public void deleteCategory(Integer categoryId) {
         categoryRepository.deleteById(categoryId);
+        categorySnapshot.remove(categoryId);
     }
 }
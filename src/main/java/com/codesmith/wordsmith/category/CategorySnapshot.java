@@ -0,0 +1,228 @@
+package com.codesmith.wordsmith.category;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Immutable in-memory copy of the whole category table.
+ *
+ * <p>Categories are few and read on almost every page, so all of them are held in a list sorted
+ * by ID, along with an array of their IDs to look them up by binary search; sparse or large IDs
+ * cost nothing. Reading a category or the list of them is a single volatile read, with no I/O and
+ * no locking. Every write builds a new copy of the snapshot and swaps it in atomically, so readers
+ * never see a partial update.
+ *
+ * <p>Writes made on this node are announced on the {@value #CHANNEL} channel; the other nodes then
+ * reload the changed category from the database, after evicting it from their own Hibernate
+ * second-level cache, which would otherwise hand the stale entity back until it expires. Reloads
+ * are made under the write lock, so that messages handled concurrently cannot apply an older read
+ * after a newer one. The whole table is also reloaded periodically, in case a message was missed,
+ * and a category missing from the snapshot is looked up in the database before being reported as
+ * not found, since it may have been created on another node whose message has not arrived yet.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class CategorySnapshot {
+
+  static final String CHANNEL = "category-changes";
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final CategoryRepository categoryRepository;
+  private final CategoryMapper categoryMapper;
+  private final StringRedisTemplate redisTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public CategorySnapshot(
+      CategoryRepository categoryRepository,
+      CategoryMapper categoryMapper,
+      StringRedisTemplate redisTemplate,
+      EntityManagerFactory entityManagerFactory,
+      RedisMessageListenerContainer listenerContainer) {
+    this.categoryRepository = categoryRepository;
+    this.categoryMapper = categoryMapper;
+    this.redisTemplate = redisTemplate;
+    this.entityManagerFactory = entityManagerFactory;
+    reload();
+    listenerContainer.addMessageListener(
+        (message, pattern) -> onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+        new ChannelTopic(CHANNEL));
+  }
+
+  /**
+   * Returns every category, ordered by ID.
+   *
+   * @return an immutable list of all categories.
+   */
+  public List<CategoryResponseDto> getAll() {
+    return snapshot.all();
+  }
+
+  /**
+   * Returns a category by its ID, from the snapshot or else from the database.
+   *
+   * @param categoryId the ID of the category.
+   * @return the category, or an empty optional if none has this ID.
+   */
+  public Optional<CategoryResponseDto> get(Integer categoryId) {
+    CategoryResponseDto category = snapshot.get(categoryId);
+    if (category == null && categoryId != null) {
+      category = reload(categoryId);
+    }
+    return Optional.ofNullable(category);
+  }
+
+  /**
+   * Checks whether a category exists.
+   *
+   * @param categoryId the ID of the category.
+   * @return true if a category has this ID, false otherwise.
+   */
+  public boolean contains(Integer categoryId) {
+    return get(categoryId).isPresent();
+  }
+
+  /**
+   * Records a category created or updated on this node and announces it to the other nodes.
+   *
+   * @param category the saved category.
+   */
+  void put(CategoryResponseDto category) {
+    apply(category.id(), category);
+    broadcast(category.id());
+  }
+
+  /**
+   * Records a category deleted on this node and announces it to the other nodes.
+   *
+   * @param categoryId the ID of the deleted category.
+   */
+  void remove(Integer categoryId) {
+    apply(categoryId, null);
+    broadcast(categoryId);
+  }
+
+  /** Replaces the snapshot with one loaded from the database. */
+  @Scheduled(
+      fixedDelayString = "${category.snapshot.reload-interval:PT5M}",
+      initialDelayString = "${category.snapshot.reload-interval:PT5M}")
+  public void reload() {
+    // A lock rather than synchronized, so that a virtual thread is not pinned during the query
+    writeLock.lock();
+    try {
+      snapshot =
+          Snapshot.of(
+              categoryRepository.findAll().stream()
+                  .map(categoryMapper::toDto)
+                  .sorted(Comparator.comparing(CategoryResponseDto::id))
+                  .toList());
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Replaces one category of the snapshot with its current row, or removes it if it is gone. The
+   * category is evicted from the second-level cache first, so that the row is read from the
+   * database.
+   *
+   * @return the category, or null if it is gone.
+   */
+  private CategoryResponseDto reload(Integer categoryId) {
+    writeLock.lock();
+    try {
+      entityManagerFactory
+          .unwrap(SessionFactory.class)
+          .getCache()
+          .evictEntityData(Category.class, categoryId);
+      CategoryResponseDto category =
+          categoryRepository.findById(categoryId).map(categoryMapper::toDto).orElse(null);
+      snapshot = snapshot.with(categoryId, category);
+      return category;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /** Copies the snapshot with one category replaced, or removed if {@code category} is null. */
+  private void apply(Integer categoryId, CategoryResponseDto category) {
+    writeLock.lock();
+    try {
+      snapshot = snapshot.with(categoryId, category);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void broadcast(Integer categoryId) {
+    try {
+      redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + categoryId);
+    } catch (RuntimeException exception) {
+      log.warn("Failed to broadcast change of category {}", categoryId, exception);
+    }
+  }
+
+  private void onMessage(String message) {
+    int separator = message.lastIndexOf(':');
+    if (message.substring(0, separator).equals(nodeId)) {
+      return;
+    }
+    reload(Integer.valueOf(message.substring(separator + 1)));
+  }
+
+  /**
+   * A consistent view of the categories.
+   *
+   * @param ids the IDs of the categories, in ascending order.
+   * @param all the categories, in the order of their IDs.
+   */
+  private record Snapshot(int[] ids, List<CategoryResponseDto> all) {
+
+    static final Snapshot EMPTY = of(List.of());
+
+    /** Creates a snapshot of categories sorted by ID. */
+    static Snapshot of(List<CategoryResponseDto> sorted) {
+      int[] ids = sorted.stream().mapToInt(CategoryResponseDto::id).toArray();
+      return new Snapshot(ids, List.copyOf(sorted));
+    }
+
+    CategoryResponseDto get(Integer categoryId) {
+      if (categoryId == null) {
+        return null;
+      }
+      int index = Arrays.binarySearch(ids, categoryId);
+      return index >= 0 ? all.get(index) : null;
+    }
+
+    /** Copies the snapshot with one category replaced, or removed if {@code category} is null. */
+    Snapshot with(Integer categoryId, CategoryResponseDto category) {
+      int index = Arrays.binarySearch(ids, categoryId);
+      List<CategoryResponseDto> categories = new ArrayList<>(all);
+      if (index >= 0 && category != null) {
+        categories.set(index, category);
+      } else if (index >= 0) {
+        categories.remove(index);
+      } else if (category != null) {
+        categories.add(-index - 1, category);
+      }
+      return of(categories);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.codesmith.wordsmith.comment;
 
+import com.codesmith.wordsmith.user.AuthorLoader;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,16 +35,34 @@ import org.springframework.web.bind.annotation.RestController;
 public class CommentController {
 
     private final CommentService commentService;
+    private final AuthorLoader authorLoader;
 
     /**
      * Retrieves a list of all comments.
      *
+     * @param embedAuthor whether to attach the summary of its author to each comment.
      * @return a list of {@link CommentResponseDto} representing all comments.
      */
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<CommentResponseDto> getAllComments() {
-        return commentService.getAllComments();
+    public List<CommentResponseDto> getAllComments(
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(commentService.getAllComments(), embedAuthor);
+    }
+
+    /**
+     * Retrieves the comments with the given IDs.
+     *
+     * @param ids         the IDs of the comments to retrieve.
+     * @param embedAuthor whether to attach the summary of its author to each comment.
+     * @return a list of {@link CommentResponseDto} of the comments found, in the order of the IDs.
+     */
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CommentResponseDto> getCommentsByIds(
+            @RequestParam final List<Long> ids,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(commentService.getCommentsByIds(ids), embedAuthor);
     }
 
     /**
@@ -98,24 +118,43 @@ public class CommentController {
     /**
      * Retrieves comments by the ID of the associated post.
      *
-     * @param postId the ID of the post to retrieve comments for.
+     * @param postId      the ID of the post to retrieve comments for.
+     * @param embedAuthor whether to attach the summary of its author to each comment.
      * @return a list of {@link CommentResponseDto} representing the comments associated with the given post.
      */
     @GetMapping("/post/{postId}")
     @ResponseStatus(HttpStatus.OK)
-    public List<CommentResponseDto> getCommentsByPostId(@PathVariable final Long postId) {
-        return commentService.getCommentsByPostId(postId);
+    public List<CommentResponseDto> getCommentsByPostId(
+            @PathVariable final Long postId,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(commentService.getCommentsByPostId(postId), embedAuthor);
     }
 
     /**
      * Retrieves comments by the ID of the user who made the comments.
      *
-     * @param userId the ID of the user to retrieve comments for.
+     * @param userId      the ID of the user to retrieve comments for.
+     * @param embedAuthor whether to attach the summary of its author to each comment.
      * @return a list of {@link CommentResponseDto} representing the comments made by the specified user.
      */
     @GetMapping("/user/{userId}")
     @ResponseStatus(HttpStatus.OK)
-    public List<CommentResponseDto> getCommentsByUserId(@PathVariable final Long userId) {
-        return commentService.getCommentsByUserId(userId);
+    public List<CommentResponseDto> getCommentsByUserId(
+            @PathVariable final Long userId,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(commentService.getCommentsByUserId(userId), embedAuthor);
+    }
+
+    /**
+     * Attaches the summary of their author to comments, if requested.
+     *
+     * @param comments    the comments.
+     * @param embedAuthor whether to attach the authors.
+     * @return the comments, with the authors attached if requested.
+     */
+    private List<CommentResponseDto> withAuthors(List<CommentResponseDto> comments, boolean embedAuthor) {
+        return embedAuthor
+                ? authorLoader.embed(comments, CommentResponseDto::userId, CommentResponseDto::withAuthor)
+                : comments;
     }
 }
@@ -45,6 +45,7 @@ public class CommentMapper {
         comment.getContent(),
         comment.getCreatedAt(),
         comment.getPostId(),
-        comment.getUserId());
+        comment.getUserId(),
+        null);
   }
 }
@@ -1,6 +1,20 @@
 package com.codesmith.wordsmith.comment;
 
+import com.codesmith.wordsmith.user.AuthorSummaryDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 public record CommentResponseDto(
-    Long id, String content, LocalDateTime createdAt, Long postId, Long userId) {}
+    Long id,
+    String content,
+    LocalDateTime createdAt,
+    Long postId,
+    Long userId,
+    @JsonInclude(JsonInclude.Include.NON_NULL) AuthorSummaryDto author)
+    implements Serializable {
+
+  public CommentResponseDto withAuthor(AuthorSummaryDto author) {
+    return new CommentResponseDto(id, content, createdAt, postId, userId, author);
+  }
+}
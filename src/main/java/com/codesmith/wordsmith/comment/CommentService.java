@@ -1,7 +1,12 @@
 package com.codesmith.wordsmith.comment;
 
+import com.codesmith.wordsmith.cache.CacheLoader;
+import com.codesmith.wordsmith.cache.MultiGetCache;
 import com.codesmith.wordsmith.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -14,7 +19,7 @@ import org.springframework.stereotype.Service;
  * <p>This class provides methods to handle business logic for creating, retrieving,
  * updating, and deleting comments. It interacts with the data persistence layer
  * through {@link CommentRepository} and uses {@link CommentMapper} to map
- * between entities and DTOs.</p>
+ * between entities and DTOs. It is also the {@link CacheLoader} of the comment cache.</p>
  *
  * <p>Annotated with {@link Service} to denote it as a service component in the Spring context,
  * allowing for dependency injection.</p>
@@ -22,11 +27,13 @@ import org.springframework.stereotype.Service;
  * @version 1.0
  */
 @Service
+@Timed("service.invocations")
 @RequiredArgsConstructor
-public class CommentService {
+public class CommentService implements CacheLoader<Long, CommentResponseDto> {
 
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
+    private final MultiGetCache multiGetCache;
 
     /**
      * Retrieves a list of all comments.
@@ -45,24 +52,63 @@ public class CommentService {
     /**
      * Retrieves a specific comment by its ID.
      *
+     * <p>Concurrent misses of the same comment are loaded once, see
+     * {@link com.codesmith.wordsmith.cache.SingleFlightCache}.</p>
+     *
      * @param commentId the ID of the comment to retrieve.
      * @return a {@link CommentResponseDto} representing the comment with the given ID.
      * @throws ResourceNotFoundException if no comment is found with the provided ID.
      */
-    @Cacheable(value = "comments", key = "#commentId")
+    @Cacheable(value = "comment", key = "#commentId", sync = true)
     public CommentResponseDto getCommentById(Long commentId) {
+        return load(commentId);
+    }
+
+    @Override
+    public String cacheName() {
+        return "comment";
+    }
+
+    /**
+     * Loads a comment from the database, bypassing the cache.
+     *
+     * @param commentId the ID of the comment to load.
+     * @return a {@link CommentResponseDto} representing the comment with the given ID.
+     * @throws ResourceNotFoundException if no comment is found with the provided ID.
+     */
+    @Override
+    public CommentResponseDto load(Long commentId) {
         Comment comment = commentRepository
                 .findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + commentId));
         return commentMapper.toDto(comment);
     }
 
+    /**
+     * Retrieves comments by their IDs.
+     *
+     * <p>The comments are read from the cache in one round trip, and those missing are loaded with
+     * a single query and cached.</p>
+     *
+     * @param commentIds the IDs of the comments to retrieve.
+     * @return a list of {@link CommentResponseDto} of the comments found, in the order of their IDs.
+     * @throws IllegalArgumentException if too many IDs are requested.
+     */
+    public List<CommentResponseDto> getCommentsByIds(List<Long> commentIds) {
+        return multiGetCache.getAll("comment", commentIds, missing -> commentRepository
+                .findAllById(missing)
+                .stream()
+                .map(commentMapper::toDto)
+                .collect(Collectors.toMap(CommentResponseDto::id, Function.identity())));
+    }
+
     /**
      * Creates a new comment based on the provided data.
      *
      * @param commentRequestDto the DTO containing the new comment data.
      * @return a {@link CommentResponseDto} representing the created comment.
      */
+    @CachePut(value = "comment", key = "#result.id")
     public CommentResponseDto createComment(CommentRequestDto commentRequestDto) {
         Comment comment = commentMapper.toEntity(commentRequestDto);
         Comment savedComment = commentRepository.save(comment);
@@ -77,7 +123,7 @@ public class CommentService {
      * @return a {@link CommentResponseDto} representing the updated comment.
      * @throws ResourceNotFoundException if no comment is found with the provided ID.
      */
-    @CachePut(value = "comments", key = "#commentId")
+    @CachePut(value = "comment", key = "#commentId")
     public CommentResponseDto updateComment(Long commentId, CommentRequestDto commentRequestDto) {
         Comment comment = commentRepository
                 .findById(commentId)
@@ -93,7 +139,7 @@ public class CommentService {
      *
      * @param commentId the ID of the comment to delete.
      */
-    @CacheEvict(value = "comments", key = "#commentId")
+    @CacheEvict(value = "comment", key = "#commentId")
     public void deleteComment(Long commentId) {
         commentRepository.deleteById(commentId);
     }
@@ -104,7 +150,7 @@ public class CommentService {
      * @param postId the ID of the post to retrieve comments for.
      * @return a list of {@link CommentResponseDto} representing the comments associated with the given post.
      */
-    @Cacheable(value = "comments", key = "#postId")
+    @Cacheable(value = "post-comments", key = "#postId")
     public List<CommentResponseDto> getCommentsByPostId(Long postId) {
         return commentRepository
                 .findByPostId(postId)
@@ -119,7 +165,7 @@ public class CommentService {
      * @param userId the ID of the user to retrieve comments for.
      * @return a list of {@link CommentResponseDto} representing the comments made by the specified user.
      */
-    @Cacheable(value = "comments", key = "#userId")
+    @Cacheable(value = "user-comments", key = "#userId")
     public List<CommentResponseDto> getCommentsByUserId(Long userId) {
         return commentRepository
                 .findByUserId(userId)
@@ -0,0 +1,62 @@
+package com.codesmith.wordsmith.config;
+
+import com.codesmith.wordsmith.cache.CacheEntry;
+import com.codesmith.wordsmith.cache.NegativeEntry;
+import com.codesmith.wordsmith.cache.SingleFlightCacheResolver;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter.TtlFunction;
+
+/**
+ * Caching infrastructure applied to every cache annotation.
+ *
+ * <p>Resolves the caches through the {@link SingleFlightCacheResolver}, so that caches can be opted
+ * in to single-flight loading by configuration alone, and keeps {@link CacheEntry CacheEntries}
+ * in Redis past their expiry so that they can be served stale while they are refreshed. {@link
+ * NegativeEntry NegativeEntries} are kept for a short time of their own.
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class CacheConfig implements CachingConfigurer {
+
+  private final ObjectProvider<SingleFlightCacheResolver> cacheResolver;
+
+  public CacheConfig(ObjectProvider<SingleFlightCacheResolver> cacheResolver) {
+    this.cacheResolver = cacheResolver;
+  }
+
+  @Override
+  public CacheResolver cacheResolver() {
+    // Looked up on first use: the configurer is created before the cache manager it depends on
+    return context -> cacheResolver.getObject().resolveCaches(context);
+  }
+
+  @Bean
+  public RedisCacheManagerBuilderCustomizer entryTimeToLiveCustomizer(
+      @Value("${cache.refresh.stale-while-revalidate:60s}") Duration staleWhileRevalidate,
+      @Value("${cache.negative.time-to-live:10s}") Duration negativeTimeToLive) {
+    return builder -> {
+      RedisCacheConfiguration defaults = builder.cacheDefaults();
+      TtlFunction timeToLive = defaults.getTtlFunction();
+      builder.cacheDefaults(
+          defaults.entryTtl(
+              (key, value) -> {
+                if (value instanceof CacheEntry entry) {
+                  return entry.timeToLive(staleWhileRevalidate);
+                }
+                return value instanceof NegativeEntry
+                    ? negativeTimeToLive
+                    : timeToLive.getTimeToLive(key, value);
+              }));
+    };
+  }
+}
@@ -0,0 +1,152 @@
+package com.codesmith.wordsmith.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.NonNull;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source bounding the number of connections in use and of callers waiting for one.
+ *
+ * <p>With virtual threads, the number of concurrent requests is no longer bounded by a thread
+ * pool, and every one of them may wait on the connection pool at once. This data source lets at
+ * most {@code maxConcurrency} callers hold a connection, queues up to {@code maxWaiting} others for
+ * at most {@code acquireTimeout}, and rejects the rest straight away, so that a burst of traffic
+ * is shed instead of piling up behind the database. Waiting callers park on a fair {@link
+ * Semaphore}, which does not pin virtual threads.
+ *
+ * @version 1.0
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+  private final Semaphore permits;
+  private final int maxWaiting;
+  private final long acquireTimeout;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicLong rejected = new AtomicLong();
+
+  /**
+   * Limits a data source.
+   *
+   * @param target the data source to limit.
+   * @param maxConcurrency the maximum number of connections in use at once.
+   * @param maxWaiting the maximum number of callers waiting for a connection.
+   * @param acquireTimeout how long a caller waits for a connection before being rejected.
+   */
+  public ConcurrencyLimitedDataSource(
+      DataSource target, int maxConcurrency, int maxWaiting, Duration acquireTimeout) {
+    super(target);
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.maxWaiting = maxWaiting;
+    this.acquireTimeout = acquireTimeout.toNanos();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    return limited(obtain(() -> super.getConnection()));
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    return limited(obtain(() -> super.getConnection(username, password)));
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Gauge.builder("jdbc.limiter.waiting", waiting, AtomicInteger::get)
+        .description("Callers waiting for a database connection")
+        .register(registry);
+    Gauge.builder("jdbc.limiter.available", permits, Semaphore::availablePermits)
+        .description("Database connections that can still be taken")
+        .register(registry);
+    FunctionCounter.builder("jdbc.limiter.rejected", rejected, AtomicLong::get)
+        .description("Requests for a database connection rejected as too many were waiting")
+        .register(registry);
+  }
+
+  private void acquire() throws SQLException {
+    if (permits.tryAcquire()) {
+      return;
+    }
+    if (waiting.incrementAndGet() > maxWaiting) {
+      waiting.decrementAndGet();
+      rejected.incrementAndGet();
+      throw new SQLTransientConnectionException("Too many requests are waiting for the database");
+    }
+    try {
+      if (!permits.tryAcquire(acquireTimeout, TimeUnit.NANOSECONDS)) {
+        rejected.incrementAndGet();
+        throw new SQLTransientConnectionException("Timed out waiting for a database connection");
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a database connection");
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  private Connection obtain(ConnectionSupplier supplier) throws SQLException {
+    try {
+      return supplier.get();
+    } catch (SQLException | RuntimeException exception) {
+      permits.release();
+      throw exception;
+    }
+  }
+
+  /** Wraps a connection so that closing it gives its permit back, once. */
+  private Connection limited(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) ->
+                switch (method.getName()) {
+                  case "equals" -> proxy == args[0];
+                  case "hashCode" -> System.identityHashCode(proxy);
+                  case "close" -> {
+                    try {
+                      yield invoke(connection, method, args);
+                    } finally {
+                      if (released.compareAndSet(false, true)) {
+                        permits.release();
+                      }
+                    }
+                  }
+                  default -> invoke(connection, method, args);
+                });
+  }
+
+  private static Object invoke(Connection connection, Method method, Object[] args)
+      throws Throwable {
+    try {
+      return method.invoke(connection, args);
+    } catch (InvocationTargetException exception) {
+      throw exception.getCause();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+    Connection get() throws SQLException;
+  }
+}
@@ -0,0 +1,51 @@
+package com.codesmith.wordsmith.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limits the concurrency of database access.
+ *
+ * <p>Wraps the data source in a {@link ConcurrencyLimitedDataSource} sized like the connection
+ * pool, so that requests running on virtual threads cannot stampede the database. Set {@code
+ * jdbc.limiter.enabled} to false to use the pool alone.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jdbc.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceConfig {
+
+  @Bean
+  static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+      @Value("${jdbc.limiter.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}")
+          int maxConcurrency,
+      @Value("${jdbc.limiter.max-waiting:200}") int maxWaiting,
+      @Value("${jdbc.limiter.acquire-timeout:2s}") Duration acquireTimeout) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String name) {
+        if (bean instanceof DataSource dataSource
+            && !(bean instanceof ConcurrencyLimitedDataSource)) {
+          return new ConcurrencyLimitedDataSource(
+              dataSource, maxConcurrency, maxWaiting, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder concurrencyLimitedDataSourceMetrics(DataSource dataSource) {
+    return registry -> {
+      if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+        limited.bindTo(registry);
+      }
+    };
+  }
+}
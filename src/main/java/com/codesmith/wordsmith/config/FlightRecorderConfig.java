@@ -0,0 +1,39 @@
+package com.codesmith.wordsmith.config;
+
+import com.codesmith.wordsmith.jfr.RepositoryCallEventInterceptor;
+import lombok.NonNull;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Records the calls to the repositories as Flight Recorder events.
+ *
+ * <p>Adds a {@link RepositoryCallEventInterceptor} in front of every repository, outside its
+ * transaction. The interceptor does nothing but check that its event is enabled while no
+ * recording is in progress.
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+  @Bean
+  static BeanPostProcessor repositoryCallEventPostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String name) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+          factoryBean.addRepositoryFactoryCustomizer(
+              factory ->
+                  factory.addRepositoryProxyPostProcessor(
+                      (proxyFactory, information) ->
+                          proxyFactory.addAdvice(
+                              0,
+                              new RepositoryCallEventInterceptor(
+                                  information.getRepositoryInterface()))));
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,67 @@
+package com.codesmith.wordsmith.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.ToDoubleFunction;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the hit ratio of the Hibernate second-level cache.
+ *
+ * <p>The {@code hibernate.second.level.cache.hit.ratio} gauge is tagged with {@code region=all}
+ * for the cache as a whole and with the name of each region. Hibernate statistics must be enabled
+ * ({@code hibernate.generate_statistics}), otherwise the ratios stay at zero.
+ *
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheMetrics implements MeterBinder {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    hitRatio(
+        registry,
+        "all",
+        statistics,
+        s -> ratio(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()));
+    for (String region : statistics.getSecondLevelCacheRegionNames()) {
+      hitRatio(
+          registry,
+          region,
+          statistics,
+          s -> {
+            CacheRegionStatistics regionStatistics = s.getCacheRegionStatistics(region);
+            return regionStatistics == null
+                ? 0
+                : ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+          });
+    }
+  }
+
+  private static void hitRatio(
+      MeterRegistry registry,
+      String region,
+      Statistics statistics,
+      ToDoubleFunction<Statistics> ratio) {
+    Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, ratio)
+        .description("Share of second-level cache lookups served from the cache")
+        .tag("region", region)
+        .register(registry);
+  }
+
+  private static double ratio(long hits, long misses) {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+}
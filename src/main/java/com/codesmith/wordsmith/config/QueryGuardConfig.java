@@ -0,0 +1,32 @@
+package com.codesmith.wordsmith.config;
+
+import com.codesmith.wordsmith.query.QueryGuardFilter;
+import com.codesmith.wordsmith.query.RecordingSessionEventListener;
+import com.codesmith.wordsmith.query.RecordingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records the statements run by Hibernate for the {@link QueryGuardFilter}.
+ *
+ * <p>Registers the {@link RecordingStatementInspector} and the {@link
+ * RecordingSessionEventListener} with Hibernate. Set {@code query.guard.enabled} to false to leave
+ * the statements unrecorded.
+ */
+@Configuration
+@ConditionalOnProperty(name = "query.guard.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryGuardConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer queryRecordingCustomizer() {
+    return properties -> {
+      properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RecordingStatementInspector());
+      properties.put(
+          AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+          RecordingSessionEventListener.class.getName());
+    };
+  }
+}
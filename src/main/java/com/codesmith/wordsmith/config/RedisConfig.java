@@ -0,0 +1,29 @@
+package com.codesmith.wordsmith.config;
+
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis infrastructure shared by the application nodes.
+ *
+ * <p>Provides the pub/sub listener container used to propagate invalidations between nodes. Its
+ * messages are handled on the application task executor, so on virtual threads when they are
+ * enabled.
+ */
+@Configuration
+public class RedisConfig {
+
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      @Qualifier("applicationTaskExecutor") Executor executor) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.setTaskExecutor(executor);
+    return container;
+  }
+}
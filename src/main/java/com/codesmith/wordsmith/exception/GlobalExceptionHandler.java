@@ -3,10 +3,14 @@ package com.codesmith.wordsmith.exception;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -74,6 +78,37 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.CONFLICT, "Conflict", exception.getMessage(), request);
     }
 
+    /**
+     * Handles ServiceUnavailableException and returns a 503 Service Unavailable response.
+     *
+     * <p>The response carries a {@code Retry-After} header telling the client when to try again.</p>
+     *
+     * @param exception the ServiceUnavailableException that was thrown
+     * @param request   the current web request
+     * @return a structured error response with details about the exception
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException exception, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, exception.getRetryAfter().toSeconds())))
+                .body(buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", exception.getMessage(), request));
+    }
+
+    /**
+     * Handles failures to obtain a database connection and returns a 503 Service Unavailable
+     * response, as they are raised when the database is saturated or unreachable.
+     *
+     * @param exception the exception that was thrown
+     * @param request   the current web request
+     * @return a structured error response asking the client to retry later
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(Exception exception, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", "The database is busy, please retry later.", request));
+    }
+
     /**
      * Handles MethodArgumentNotValidException and returns a 400 Bad Request response.
      *
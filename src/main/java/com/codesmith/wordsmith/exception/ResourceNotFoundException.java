@@ -5,9 +5,12 @@ package com.codesmith.wordsmith.exception;
  *
  * <p>This exception is typically used in scenarios such as retrieving an entity by its ID from a
  * database when the entity does not exist.
+ *
+ * <p>Not finding a resource is an expected outcome rather than a fault, which clients trigger at
+ * will by requesting unknown IDs, so the exception does not capture a stack trace.
  */
 public class ResourceNotFoundException extends RuntimeException {
   public ResourceNotFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
 }
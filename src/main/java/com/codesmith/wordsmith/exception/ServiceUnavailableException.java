@@ -0,0 +1,21 @@
+package com.codesmith.wordsmith.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Exception thrown when a request cannot be served because a resource it needs is saturated.
+ *
+ * <p>Carries the time after which the client may retry, returned in the {@code Retry-After}
+ * header.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ServiceUnavailableException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+}
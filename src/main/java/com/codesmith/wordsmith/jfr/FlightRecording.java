@@ -0,0 +1,75 @@
+package com.codesmith.wordsmith.jfr;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Rolling JDK Flight Recorder recording, kept for as long as the application runs.
+ *
+ * <p>The recording keeps the last {@code jfr.recording.max-age} of events, within {@code
+ * jfr.recording.max-size}, so that a latency spike can be looked into after the fact with the
+ * {@link FlightRecordingEndpoint} rather than by attaching a profiler. Its events are set by
+ * {@code jfr.recording.settings}: the name of a configuration of the JDK, {@code default} being
+ * meant for production and {@code profile} more detailed, or the path of a {@code .jfc} file. The
+ * Word Smith events are enabled unless the settings disable them.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+public class FlightRecording {
+
+  private final Recording recording;
+
+  public FlightRecording(
+      @Value("${jfr.recording.settings:default}") String settings,
+      @Value("${jfr.recording.max-age:15m}") Duration maxAge,
+      @Value("${jfr.recording.max-size:100MB}") DataSize maxSize)
+      throws IOException, ParseException {
+    Configuration configuration =
+        settings.endsWith(".jfc")
+            ? Configuration.create(Path.of(settings))
+            : Configuration.getConfiguration(settings);
+    recording = new Recording(configuration);
+    recording.setName("word-smith");
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSize.toBytes());
+    recording.start();
+    log.info("Flight recording started with the {} settings, keeping {}", settings, maxAge);
+  }
+
+  /**
+   * Writes the events recorded so far to a temporary file.
+   *
+   * @return the file, for the caller to delete.
+   * @throws IOException if the file cannot be written.
+   */
+  public Path dump() throws IOException {
+    Path file = Files.createTempFile("word-smith-", ".jfr");
+    try {
+      recording.dump(file);
+    } catch (IOException | RuntimeException exception) {
+      Files.deleteIfExists(file);
+      throw exception;
+    }
+    return file;
+  }
+
+  @PreDestroy
+  public void close() {
+    recording.close();
+  }
+}
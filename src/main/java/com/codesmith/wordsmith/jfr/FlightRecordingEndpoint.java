@@ -0,0 +1,66 @@
+package com.codesmith.wordsmith.jfr;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint dumping the {@link FlightRecording}, at {@code /actuator/flightrecording} once
+ * included in {@code management.endpoints.web.exposure.include}.
+ *
+ * <p>The dump is a JFR file, to be opened with JDK Mission Control or {@code jfr print}. It holds
+ * the usernames of the requests recorded, so the endpoint is restricted to administrators.
+ *
+ * @version 1.0
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+  private final FlightRecording recording;
+
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> dump() throws IOException {
+    return new WebEndpointResponse<>(new TemporaryFileResource(recording.dump().toFile()));
+  }
+
+  /** File deleted once it has been read. */
+  private static final class TemporaryFileResource extends FileSystemResource {
+
+    TemporaryFileResource(File file) {
+      super(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      return new FilterInputStream(super.getInputStream()) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            Files.deleteIfExists(getFile().toPath());
+          }
+        }
+      };
+    }
+
+    @Override
+    public boolean isFile() {
+      // Served through the input stream, so that the file is deleted once sent
+      return false;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.codesmith.wordsmith.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an HTTP request, recorded by the {@link HttpRequestEventFilter}.
+ *
+ * @version 1.0
+ */
+@Name("wordsmith.HttpRequest")
+@Label("HTTP Request")
+@Category({"Word Smith", "HTTP"})
+@Description("Request served, from the loading of its security context to its response")
+@StackTrace(false)
+final class HttpRequestEvent extends Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Endpoint")
+  @Description("Pattern of the endpoint, or the path of the request if it matched none")
+  String endpoint;
+
+  @Label("User")
+  @Description("Username of the authenticated user, absent for anonymous requests")
+  String user;
+
+  @Label("Status")
+  int status;
+}
@@ -0,0 +1,56 @@
+package com.codesmith.wordsmith.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Filter recording each request as an {@link HttpRequestEvent} when Flight Recorder is recording.
+ *
+ * <p>Runs in the security filter chain right after the security context is loaded, so that the
+ * user authenticated by the {@code JwtFilter} is still known once the request is served.
+ *
+ * @version 1.0
+ */
+@Component
+public class HttpRequestEventFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    HttpRequestEvent event = new HttpRequestEvent();
+    if (!event.isEnabled()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    event.begin();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (event.shouldCommit()) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        event.method = request.getMethod();
+        event.endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+        event.user =
+            authentication == null || authentication instanceof AnonymousAuthenticationToken
+                ? null
+                : authentication.getName();
+        event.status = response.getStatus();
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.codesmith.wordsmith.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a call to a Spring Data repository, recorded by the {@link
+ * RepositoryCallEventInterceptor}.
+ *
+ * @version 1.0
+ */
+@Name("wordsmith.RepositoryCall")
+@Label("Repository Call")
+@Category({"Word Smith", "Data"})
+@Description("Call to a repository method, its transaction included")
+@StackTrace(false)
+final class RepositoryCallEvent extends Event {
+
+  @Label("Repository")
+  Class<?> repository;
+
+  @Label("Method")
+  String method;
+
+  @Label("Failed")
+  boolean failed;
+}
@@ -0,0 +1,45 @@
+package com.codesmith.wordsmith.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Interceptor recording the calls to a repository as {@link RepositoryCallEvent
+ * RepositoryCallEvents} when Flight Recorder is recording.
+ *
+ * @version 1.0
+ */
+public class RepositoryCallEventInterceptor implements MethodInterceptor {
+
+  private final Class<?> repositoryInterface;
+
+  /**
+   * Creates the interceptor of a repository.
+   *
+   * @param repositoryInterface the interface of the repository.
+   */
+  public RepositoryCallEventInterceptor(Class<?> repositoryInterface) {
+    this.repositoryInterface = repositoryInterface;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    RepositoryCallEvent event = new RepositoryCallEvent();
+    if (!event.isEnabled()) {
+      return invocation.proceed();
+    }
+    event.begin();
+    event.failed = true;
+    try {
+      Object result = invocation.proceed();
+      event.failed = false;
+      return result;
+    } finally {
+      if (event.shouldCommit()) {
+        event.repository = repositoryInterface;
+        event.method = invocation.getMethod().getName();
+        event.commit();
+      }
+    }
+  }
+}
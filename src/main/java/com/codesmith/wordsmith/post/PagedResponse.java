@@ -18,4 +18,14 @@ public class PagedResponse<T> {
   private long totalElements;
   private int totalPages;
   private boolean last;
+
+  /**
+   * Returns a copy of this page with its content replaced.
+   *
+   * @param content the new content of the page.
+   * @return a page with the same pagination information and the given content.
+   */
+  public PagedResponse<T> withContent(List<T> content) {
+    return new PagedResponse<>(content, pageNumber, pageSize, totalElements, totalPages, last);
+  }
 }
@@ -5,9 +5,11 @@ import static com.codesmith.wordsmith.post.PageConstants.PAGE_SIZE;
 import static com.codesmith.wordsmith.post.PageConstants.SORT_BY;
 import static com.codesmith.wordsmith.post.PageConstants.SORT_DIRECTION;
 
+import com.codesmith.wordsmith.user.AuthorLoader;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -43,6 +45,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class PostController {
 
     private final PostService postService;
+    private final AuthorLoader authorLoader;
+    private final PostReadStats postReadStats;
 
     /**
      * Retrieves a paginated list of all posts.
@@ -51,6 +55,7 @@ public class PostController {
      * @param size      the number of posts per page (default is defined by {@code PAGE_SIZE}).
      * @param sortBy    the field to sort by (default is defined by {@code SORT_BY}).
      * @param direction the direction to sort (default is defined by {@code SORT_DIRECTION}).
+     * @param embedAuthor whether to attach the summary of its author to each post.
      * @return a {@link PagedResponse} containing the list of {@link PostResponseDto}.
      */
     @GetMapping
@@ -59,8 +64,28 @@ public class PostController {
             @RequestParam(defaultValue = PAGE_NUMBER) final Integer page,
             @RequestParam(defaultValue = PAGE_SIZE) final Integer size,
             @RequestParam(defaultValue = SORT_BY) final String sortBy,
-            @RequestParam(defaultValue = SORT_DIRECTION) final String direction) {
-        return postService.getAllPosts(page, size, sortBy, direction);
+            @RequestParam(defaultValue = SORT_DIRECTION) final String direction,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(postService.getAllPosts(page, size, sortBy, direction), embedAuthor);
+    }
+
+    /**
+     * Retrieves the posts with the given IDs.
+     *
+     * @param ids         the IDs of the posts to retrieve.
+     * @param embedAuthor whether to attach the summary of its author to each post.
+     * @return a list of {@link PostResponseDto} of the posts found, in the order of the IDs.
+     */
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<PostResponseDto> getPostsByIds(
+            @RequestParam final List<Long> ids,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        List<PostResponseDto> posts = postService.getPostsByIds(ids);
+        posts.forEach(post -> postReadStats.record(post.id()));
+        return embedAuthor
+                ? authorLoader.embed(posts, PostResponseDto::userId, PostResponseDto::withAuthor)
+                : posts;
     }
 
     /**
@@ -72,7 +97,9 @@ public class PostController {
     @GetMapping("/{postId}")
     @ResponseStatus(HttpStatus.OK)
     public PostResponseDto getPostById(@PathVariable final Long postId) {
-        return postService.getPostById(postId);
+        PostResponseDto post = postService.getPostById(postId);
+        postReadStats.record(postId);
+        return post;
     }
 
     /**
@@ -120,6 +147,7 @@ public class PostController {
      * @param size       the number of posts per page (default is defined by {@code PAGE_SIZE}).
      * @param sortBy     the field to sort by (default is defined by {@code SORT_BY}).
      * @param direction  the direction to sort (default is defined by {@code SORT_DIRECTION}).
+     * @param embedAuthor whether to attach the summary of its author to each post.
      * @return a {@link PagedResponse} containing the list of {@link PostResponseDto}.
      */
     @GetMapping("/category/{categoryId}")
@@ -129,8 +157,9 @@ public class PostController {
             @RequestParam(defaultValue = PAGE_NUMBER) final Integer page,
             @RequestParam(defaultValue = PAGE_SIZE) final Integer size,
             @RequestParam(defaultValue = SORT_BY) final String sortBy,
-            @RequestParam(defaultValue = SORT_DIRECTION) final String direction) {
-        return postService.getPostsByCategoryId(categoryId, page, size, sortBy, direction);
+            @RequestParam(defaultValue = SORT_DIRECTION) final String direction,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(postService.getPostsByCategoryId(categoryId, page, size, sortBy, direction), embedAuthor);
     }
 
     /**
@@ -141,6 +170,7 @@ public class PostController {
      * @param size      the number of posts per page (default is defined by {@code PAGE_SIZE}).
      * @param sortBy    the field to sort by (default is defined by {@code SORT_BY}).
      * @param direction the direction to sort (default is defined by {@code SORT_DIRECTION}).
+     * @param embedAuthor whether to attach the summary of its author to each post.
      * @return a {@link PagedResponse} containing the list of {@link PostResponseDto}.
      */
     @GetMapping("/user/{userId}")
@@ -150,8 +180,9 @@ public class PostController {
             @RequestParam(defaultValue = PAGE_NUMBER) final Integer page,
             @RequestParam(defaultValue = PAGE_SIZE) final Integer size,
             @RequestParam(defaultValue = SORT_BY) final String sortBy,
-            @RequestParam(defaultValue = SORT_DIRECTION) final String direction) {
-        return postService.getPostsByUserId(userId, page, size, sortBy, direction);
+            @RequestParam(defaultValue = SORT_DIRECTION) final String direction,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(postService.getPostsByUserId(userId, page, size, sortBy, direction), embedAuthor);
     }
 
     /**
@@ -163,6 +194,7 @@ public class PostController {
      * @param size       the number of posts per page (default is defined by {@code PAGE_SIZE}).
      * @param sortBy     the field to sort by (default is defined by {@code SORT_BY}).
      * @param direction  the direction to sort (default is defined by {@code SORT_DIRECTION}).
+     * @param embedAuthor whether to attach the summary of its author to each post.
      * @return a {@link PagedResponse} containing the list of {@link PostResponseDto}.
      */
     @GetMapping("/user/{userId}/category/{categoryId}")
@@ -173,8 +205,9 @@ public class PostController {
             @RequestParam(defaultValue = PAGE_NUMBER) final Integer page,
             @RequestParam(defaultValue = PAGE_SIZE) final Integer size,
             @RequestParam(defaultValue = SORT_BY) final String sortBy,
-            @RequestParam(defaultValue = SORT_DIRECTION) final String direction) {
-        return postService.getPostsByUserIdAndCategoryId(userId, categoryId, page, size, sortBy, direction);
+            @RequestParam(defaultValue = SORT_DIRECTION) final String direction,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(postService.getPostsByUserIdAndCategoryId(userId, categoryId, page, size, sortBy, direction), embedAuthor);
     }
 
     /**
@@ -185,6 +218,7 @@ public class PostController {
      * @param size       the number of posts per page (default is defined by {@code PAGE_SIZE}).
      * @param sortBy     the field to sort by (default is defined by {@code SORT_BY}).
      * @param direction  the direction to sort (default is defined by {@code SORT_DIRECTION}).
+     * @param embedAuthor whether to attach the summary of its author to each post.
      * @return a {@link PagedResponse} containing the list of {@link PostResponseDto} that match the search term.
      */
     @GetMapping("/search/{searchTerm}")
@@ -194,7 +228,23 @@ public class PostController {
             @RequestParam(defaultValue = PAGE_NUMBER) final Integer page,
             @RequestParam(defaultValue = PAGE_SIZE) final Integer size,
             @RequestParam(defaultValue = SORT_BY) final String sortBy,
-            @RequestParam(defaultValue = SORT_DIRECTION) final String direction) {
-        return postService.getByTitleContaining(searchTerm, page, size, sortBy, direction);
+            @RequestParam(defaultValue = SORT_DIRECTION) final String direction,
+            @RequestParam(defaultValue = "false") final boolean embedAuthor) {
+        return withAuthors(postService.getByTitleContaining(searchTerm, page, size, sortBy, direction), embedAuthor);
+    }
+
+    /**
+     * Attaches the summary of their author to the posts of a page, if requested.
+     *
+     * @param posts       the page of posts.
+     * @param embedAuthor whether to attach the authors.
+     * @return the page, with the authors attached if requested.
+     */
+    private PagedResponse<PostResponseDto> withAuthors(PagedResponse<PostResponseDto> posts, boolean embedAuthor) {
+        if (!embedAuthor) {
+            return posts;
+        }
+        return posts.withContent(
+                authorLoader.embed(posts.getContent(), PostResponseDto::userId, PostResponseDto::withAuthor));
     }
 }
@@ -29,7 +29,8 @@ public class PostMapper {
         post.getCreatedAt(),
         post.getUpdatedAt(),
         post.getUserId(),
-        post.getCategoryId());
+        post.getCategoryId(),
+        null);
   }
 
   /**
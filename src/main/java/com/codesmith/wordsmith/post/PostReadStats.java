@@ -0,0 +1,117 @@
+package com.codesmith.wordsmith.post;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the reads of each post, shared by every node, to tell which posts are the most read.
+ *
+ * <p>Reads are counted in memory, so recording one costs no I/O, and the counts are added every
+ * {@code post.read-stats.flush-interval} to a sorted set in Redis per hour, in a single pipeline.
+ * Each set expires once it falls out of the {@code post.read-stats.window}, so the most-read posts
+ * are those of the last hours, including reads made before this node started.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class PostReadStats {
+
+  private static final String KEY_PREFIX = "post-reads:";
+
+  private final StringRedisTemplate redisTemplate;
+  private final int windowHours;
+  private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+  public PostReadStats(
+      StringRedisTemplate redisTemplate,
+      @Value("${post.read-stats.window:24h}") Duration window) {
+    this.redisTemplate = redisTemplate;
+    this.windowHours = (int) Math.max(window.toHours(), 1);
+  }
+
+  /**
+   * Records a read of a post.
+   *
+   * @param postId the ID of the post read.
+   */
+  public void record(Long postId) {
+    pending.computeIfAbsent(postId, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Returns the posts read the most within the window, across every node.
+   *
+   * @param count the maximum number of posts to return.
+   * @return the IDs of the most-read posts, the most read first.
+   */
+  public List<Long> mostRead(int count) {
+    long hour = currentHour();
+    List<String> keys = new ArrayList<>(windowHours);
+    for (int i = 0; i < windowHours; i++) {
+      keys.add(KEY_PREFIX + (hour - i));
+    }
+    String union = KEY_PREFIX + "union:" + UUID.randomUUID();
+    try {
+      redisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), union);
+      Set<String> postIds = redisTemplate.opsForZSet().reverseRange(union, 0, count - 1L);
+      return postIds == null ? List.of() : postIds.stream().map(Long::valueOf).toList();
+    } finally {
+      redisTemplate.delete(union);
+    }
+  }
+
+  /** Adds the reads counted since the last flush to the set of the current hour. */
+  @Scheduled(
+      fixedDelayString = "${post.read-stats.flush-interval:PT1M}",
+      initialDelayString = "${post.read-stats.flush-interval:PT1M}")
+  @PreDestroy
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    Map<Long, Long> counts = new HashMap<>();
+    for (Long postId : pending.keySet()) {
+      LongAdder reads = pending.remove(postId);
+      if (reads != null) {
+        counts.put(postId, reads.sum());
+      }
+    }
+    String key = KEY_PREFIX + currentHour();
+    long expiry = TimeUnit.HOURS.toSeconds(windowHours + 1L);
+    try {
+      redisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                counts.forEach(
+                    (postId, reads) -> commands.zIncrBy(key, reads, postId.toString()));
+                commands.expire(key, expiry);
+                return null;
+              });
+    } catch (RuntimeException exception) {
+      log.warn("Failed to flush the reads of {} posts", counts.size(), exception);
+    }
+  }
+
+  private static long currentHour() {
+    return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+  }
+}
@@ -1,5 +1,8 @@
 package com.codesmith.wordsmith.post;
 
+import com.codesmith.wordsmith.user.AuthorSummaryDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 public record PostResponseDto(
@@ -9,4 +12,11 @@ public record PostResponseDto(
     LocalDateTime createdAt,
     LocalDateTime updatedAt,
     Long userId,
-    Integer categoryId) {}
+    Integer categoryId,
+    @JsonInclude(JsonInclude.Include.NON_NULL) AuthorSummaryDto author)
+    implements Serializable {
+
+  public PostResponseDto withAuthor(AuthorSummaryDto author) {
+    return new PostResponseDto(id, title, content, createdAt, updatedAt, userId, categoryId, author);
+  }
+}
@@ -1,6 +1,13 @@
 package com.codesmith.wordsmith.post;
 
+import com.codesmith.wordsmith.cache.CacheLoader;
+import com.codesmith.wordsmith.cache.MultiGetCache;
+import com.codesmith.wordsmith.category.CategorySnapshot;
 import com.codesmith.wordsmith.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -14,16 +21,20 @@ import org.springframework.stereotype.Service;
  * Service class for managing posts in the application.
  *
  * <p>This class provides methods to create, read, update, and delete posts, as well as retrieve
- * paginated lists of posts based on various criteria, including category and user ID.
+ * paginated lists of posts based on various criteria, including category and user ID. It is also
+ * the {@link CacheLoader} of the post cache.
  *
  * @version 1.0
  */
 @Service
+@Timed("service.invocations")
 @RequiredArgsConstructor
-public class PostService {
+public class PostService implements CacheLoader<Long, PostResponseDto> {
 
   private final PostMapper postMapper;
   private final PostRepository postRepository;
+  private final CategorySnapshot categorySnapshot;
+  private final MultiGetCache multiGetCache;
 
   /**
    * Creates a PageRequest object for pagination.
@@ -36,7 +47,7 @@ public class PostService {
    * @throws IllegalArgumentException if the sorting direction is invalid or if the sortBy field is
    *     null or empty.
    */
-  private PageRequest createPageRequest(
+  static PageRequest createPageRequest(
       Integer page, Integer size, String sortBy, String direction) {
     // Ensure the page number is at least 0 (zero-based indexing)
     int validatedPage = (page != null && page > 0) ? page - 1 : 0;
@@ -54,6 +65,19 @@ public class PostService {
     return PageRequest.of(validatedPage, size, sort);
   }
 
+  /**
+   * Checks that a category exists, against the in-memory snapshot of the categories or, when it is
+   * missing from the snapshot, the database.
+   *
+   * @param categoryId the ID of the category.
+   * @throws ResourceNotFoundException if the category is not found.
+   */
+  private void validateCategory(Integer categoryId) {
+    if (!categorySnapshot.contains(categoryId)) {
+      throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+    }
+  }
+
   /**
    * Creates a PagedResponse object from a Page of PostResponseDto.
    *
@@ -89,12 +113,32 @@ public class PostService {
   /**
    * Retrieves a post by its ID.
    *
+   * <p>Concurrent misses of the same post are loaded once, see {@link
+   * com.codesmith.wordsmith.cache.SingleFlightCache}.
+   *
    * @param postId the ID of the post to retrieve.
    * @return the PostResponseDto representing the found post.
    * @throws ResourceNotFoundException if the post is not found.
    */
-  @Cacheable(value = "post", key = "#postId")
+  @Cacheable(value = "post", key = "#postId", sync = true)
   public PostResponseDto getPostById(Long postId) {
+    return load(postId);
+  }
+
+  @Override
+  public String cacheName() {
+    return "post";
+  }
+
+  /**
+   * Loads a post from the database, bypassing the cache.
+   *
+   * @param postId the ID of the post to load.
+   * @return the PostResponseDto representing the found post.
+   * @throws ResourceNotFoundException if the post is not found.
+   */
+  @Override
+  public PostResponseDto load(Long postId) {
     Post post =
         postRepository
             .findById(postId)
@@ -102,14 +146,36 @@ public class PostService {
     return postMapper.toDto(post);
   }
 
+  /**
+   * Retrieves posts by their IDs.
+   *
+   * <p>The posts are read from the cache in one round trip, and those missing are loaded with a
+   * single query and cached.
+   *
+   * @param postIds the IDs of the posts to retrieve.
+   * @return the PostResponseDtos of the posts found, in the order of their IDs.
+   * @throws IllegalArgumentException if too many IDs are requested.
+   */
+  public List<PostResponseDto> getPostsByIds(List<Long> postIds) {
+    return multiGetCache.getAll(
+        "post",
+        postIds,
+        missing ->
+            postRepository.findAllById(missing).stream()
+                .map(postMapper::toDto)
+                .collect(Collectors.toMap(PostResponseDto::id, Function.identity())));
+  }
+
   /**
    * Creates a new post.
    *
    * @param postRequestDto the request DTO containing the details of the post to create.
    * @return the PostResponseDto representing the created post.
+   * @throws ResourceNotFoundException if the category is not found.
    */
-  @CachePut(value = "post", key = "#postId")
+  @CachePut(value = "post", key = "#result.id")
   public PostResponseDto createPost(PostRequestDto postRequestDto) {
+    validateCategory(postRequestDto.categoryId());
     Post post = postMapper.toEntity(postRequestDto);
     Post savedPost = postRepository.save(post);
     return postMapper.toDto(savedPost);
@@ -121,10 +187,11 @@ public class PostService {
    * @param postId the ID of the post to update.
    * @param postRequestDto the request DTO containing the updated details of the post.
    * @return the PostResponseDto representing the updated post.
-   * @throws ResourceNotFoundException if the post is not found.
+   * @throws ResourceNotFoundException if the post or the category is not found.
    */
   @CachePut(value = "post", key = "#postId")
   public PostResponseDto updatePost(Long postId, PostRequestDto postRequestDto) {
+    validateCategory(postRequestDto.categoryId());
     Post post =
         postRepository
             .findById(postId)
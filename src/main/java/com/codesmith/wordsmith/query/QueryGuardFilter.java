@@ -0,0 +1,120 @@
+package com.codesmith.wordsmith.query;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Filter recording the SQL statements run by each request.
+ *
+ * <p>Runs before Spring Security, so that the statements loading the principal are counted too.
+ * The statement count and execution time of every request are logged at debug level. A warning is
+ * logged when a request runs more statements than {@code query.guard.max-statements}, and for each
+ * statement shape it runs at least {@code query.guard.repeated-threshold} times, a likely N+1
+ * select.
+ *
+ * <p>With {@code query.guard.response-headers} set, the figures are also returned in the {@value
+ * #STATEMENTS_HEADER}, {@value #TIME_HEADER} and {@value #REPEATED_HEADER} headers, so that
+ * integration tests can hold each endpoint to a query budget. The response is then buffered, so
+ * that the headers can be set once the request is over: this is meant for tests, not production.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnProperty(name = "query.guard.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryGuardFilter extends OncePerRequestFilter {
+
+  /** Header holding the number of statements run by the request. */
+  public static final String STATEMENTS_HEADER = "X-Query-Count";
+
+  /** Header holding the time spent executing the statements, in milliseconds. */
+  public static final String TIME_HEADER = "X-Query-Time";
+
+  /** Header holding the number of statement shapes run repeatedly by the request. */
+  public static final String REPEATED_HEADER = "X-Query-Repeated";
+
+  private final int maxStatements;
+  private final int repeatedThreshold;
+  private final boolean responseHeaders;
+
+  public QueryGuardFilter(
+      @Value("${query.guard.max-statements:20}") int maxStatements,
+      @Value("${query.guard.repeated-threshold:3}") int repeatedThreshold,
+      @Value("${query.guard.response-headers:false}") boolean responseHeaders) {
+    this.maxStatements = maxStatements;
+    this.repeatedThreshold = repeatedThreshold;
+    this.responseHeaders = responseHeaders;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    ContentCachingResponseWrapper buffered =
+        responseHeaders ? new ContentCachingResponseWrapper(response) : null;
+    QueryRecording recording = QueryRecording.start();
+    try {
+      filterChain.doFilter(request, buffered != null ? buffered : response);
+    } finally {
+      recording.close();
+      report(request, recording);
+    }
+    if (buffered != null) {
+      buffered.setHeader(STATEMENTS_HEADER, Integer.toString(recording.statementCount()));
+      buffered.setHeader(TIME_HEADER, millis(recording));
+      buffered.setHeader(
+          REPEATED_HEADER,
+          Integer.toString(recording.repeatedStatements(repeatedThreshold).size()));
+      buffered.copyBodyToResponse();
+    }
+  }
+
+  private void report(HttpServletRequest request, QueryRecording recording) {
+    int statements = recording.statementCount();
+    if (statements == 0) {
+      return;
+    }
+    Map<String, Integer> repeated = recording.repeatedStatements(repeatedThreshold);
+    if (statements > maxStatements) {
+      log.warn(
+          "{} ran {} statements in {} ms, over the budget of {}",
+          endpoint(request),
+          statements,
+          millis(recording),
+          maxStatements);
+    } else if (log.isDebugEnabled()) {
+      log.debug("{} ran {} statements in {} ms", endpoint(request), statements, millis(recording));
+    }
+    repeated.forEach(
+        (shape, count) ->
+            log.warn(
+                "Possible N+1 query in {}, run {} times: {}", endpoint(request), count, shape));
+  }
+
+  private static String endpoint(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+  }
+
+  private static String millis(QueryRecording recording) {
+    return String.format(Locale.ROOT, "%.3f", recording.executionTime().toNanos() / 1e6);
+  }
+}
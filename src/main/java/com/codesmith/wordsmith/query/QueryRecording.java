@@ -0,0 +1,153 @@
+package com.codesmith.wordsmith.query;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Record of the SQL statements Hibernate runs on the current thread.
+ *
+ * <p>A recording is started with {@link #start()} and stops when closed. While it is open, every
+ * statement inspected by the {@link RecordingStatementInspector} is counted, along with the time
+ * spent executing it as timed by the {@link RecordingSessionEventListener}. Recordings nest: a
+ * statement counts towards every recording open on the thread. Statements run by plain JDBC, or
+ * on another thread, are not recorded.
+ *
+ * <p>Statements are also counted by shape, that is with their literals and the size of their
+ * {@code IN} lists left out, so that the same query run for each element of a list, the signature
+ * of an N+1 select, stands out.
+ *
+ * @version 1.0
+ */
+public final class QueryRecording implements AutoCloseable {
+
+  private static final ThreadLocal<QueryRecording> CURRENT = new ThreadLocal<>();
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+  private final QueryRecording parent;
+  private final Map<String, Integer> shapes = new LinkedHashMap<>();
+  private int statementCount;
+  private long executionNanos;
+  private boolean closed;
+
+  private QueryRecording(QueryRecording parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Starts recording the statements run on the current thread.
+   *
+   * @return the recording, to be closed on the same thread.
+   */
+  public static QueryRecording start() {
+    QueryRecording recording = new QueryRecording(CURRENT.get());
+    CURRENT.set(recording);
+    return recording;
+  }
+
+  /**
+   * Records a statement about to be prepared on the current thread.
+   *
+   * @param sql the statement.
+   */
+  static void statement(String sql) {
+    QueryRecording recording = CURRENT.get();
+    if (recording == null) {
+      return;
+    }
+    String shape = shape(sql);
+    for (; recording != null; recording = recording.parent) {
+      recording.statementCount++;
+      recording.shapes.merge(shape, 1, Integer::sum);
+    }
+  }
+
+  /**
+   * Records the time spent executing a statement on the current thread.
+   *
+   * @param nanos the execution time, in nanoseconds.
+   */
+  static void executed(long nanos) {
+    QueryRecording recording = CURRENT.get();
+    for (; recording != null; recording = recording.parent) {
+      recording.executionNanos += nanos;
+    }
+  }
+
+  /**
+   * Returns the shape of a statement, its literals and {@code IN} lists collapsed to a single
+   * parameter.
+   *
+   * @param sql the statement.
+   * @return the shape.
+   */
+  static String shape(String sql) {
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    return IN_LIST.matcher(shape).replaceAll("(?)");
+  }
+
+  /**
+   * Returns the number of statements recorded.
+   *
+   * @return the number of statements.
+   */
+  public int statementCount() {
+    return statementCount;
+  }
+
+  /**
+   * Returns the time spent executing the statements recorded.
+   *
+   * @return the execution time, fetching the results included.
+   */
+  public Duration executionTime() {
+    return Duration.ofNanos(executionNanos);
+  }
+
+  /**
+   * Returns the number of statements recorded for each shape, in the order they were first run.
+   *
+   * @return the statement counts by shape.
+   */
+  public Map<String, Integer> statementsByShape() {
+    return Collections.unmodifiableMap(shapes);
+  }
+
+  /**
+   * Returns the shapes run at least a given number of times, the likely N+1 selects.
+   *
+   * @param threshold the number of runs from which a shape is reported.
+   * @return the statement counts of the shapes reported.
+   */
+  public Map<String, Integer> repeatedStatements(int threshold) {
+    Map<String, Integer> repeated = new LinkedHashMap<>();
+    shapes.forEach(
+        (shape, count) -> {
+          if (count >= threshold) {
+            repeated.put(shape, count);
+          }
+        });
+    return repeated;
+  }
+
+  /** Stops recording, resuming the recording this one was started in, if any. */
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      if (CURRENT.get() == this) {
+        if (parent == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(parent);
+        }
+      }
+    }
+  }
+}
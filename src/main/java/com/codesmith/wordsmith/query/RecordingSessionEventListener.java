@@ -0,0 +1,36 @@
+package com.codesmith.wordsmith.query;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time Hibernate spends executing statements, and fetching their results, to the open
+ * {@link QueryRecording QueryRecordings}.
+ *
+ * <p>Hibernate creates a listener for each session, from its class name.
+ *
+ * @version 1.0
+ */
+public class RecordingSessionEventListener implements SessionEventListener {
+
+  private long start;
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    start = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    QueryRecording.executed(System.nanoTime() - start);
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    start = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    QueryRecording.executed(System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,18 @@
+package com.codesmith.wordsmith.query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares towards the open {@link QueryRecording QueryRecordings},
+ * leaving them unchanged.
+ *
+ * @version 1.0
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    QueryRecording.statement(sql);
+    return sql;
+  }
+}
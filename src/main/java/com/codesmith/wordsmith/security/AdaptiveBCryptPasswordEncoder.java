@@ -0,0 +1,155 @@
+package com.codesmith.wordsmith.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose work factor is calibrated to the machine it runs on.
+ *
+ * <p>{@link #calibrate} measures BCrypt at increasing costs and picks the highest one whose hash
+ * still fits in the configured time budget. Stored hashes of a lower cost are reported as needing
+ * an upgrade, so that Spring Security rehashes them on the next successful login through the
+ * {@link UserDetailsPasswordService}.
+ *
+ * <p>Every hash encoded or checked is counted in the {@code auth.hashing.cost} counter, tagged by
+ * its cost, and the calibrated cost is published as the {@code auth.hashing.strength} gauge. As
+ * the time of a hash doubles with each cost step, the counts give the hashing capacity needed.
+ *
+ * @version 1.0
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+  private static final int MIN_STRENGTH = 4;
+  private static final int MAX_STRENGTH = 31;
+
+  @Getter private final int strength;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Creates an encoder hashing with the given cost.
+   *
+   * @param strength the BCrypt cost, between 4 and 31.
+   * @param meterRegistry the registry the metrics are published to.
+   */
+  public AdaptiveBCryptPasswordEncoder(int strength, MeterRegistry meterRegistry) {
+    super(strength);
+    this.strength = strength;
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("auth.hashing.strength", this, AdaptiveBCryptPasswordEncoder::getStrength)
+        .description("BCrypt cost new password hashes are encoded with")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Creates an encoder with the highest cost whose hash takes no longer than the time budget on
+   * this machine.
+   *
+   * <p>The cost of a BCrypt hash doubles with each step, so costs are measured in increasing order
+   * until the next one would exceed the budget. Calibration therefore takes about twice the budget.
+   *
+   * @param timeBudget the time a single hash may take.
+   * @param minStrength the lowest cost to use, however slow the machine.
+   * @param maxStrength the highest cost to use, however fast the machine.
+   * @param meterRegistry the registry the metrics are published to.
+   * @return the calibrated encoder.
+   */
+  public static AdaptiveBCryptPasswordEncoder calibrate(
+      Duration timeBudget, int minStrength, int maxStrength, MeterRegistry meterRegistry) {
+    if (minStrength < MIN_STRENGTH || maxStrength > MAX_STRENGTH || minStrength > maxStrength) {
+      throw new IllegalArgumentException("Invalid BCrypt strength range");
+    }
+    // Warm up the JIT so the first measurement is not inflated
+    measure(MIN_STRENGTH);
+    measure(MIN_STRENGTH);
+
+    int strength = minStrength;
+    long elapsed = measure(strength);
+    while (strength < maxStrength && elapsed * 2 <= timeBudget.toNanos()) {
+      strength++;
+      elapsed = measure(strength);
+    }
+    if (elapsed > timeBudget.toNanos() && strength > minStrength) {
+      strength--;
+    }
+    log.info(
+        "Calibrated BCrypt strength to {} for a budget of {} ms per hash",
+        strength,
+        timeBudget.toMillis());
+    return new AdaptiveBCryptPasswordEncoder(strength, meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    recordCost(strength);
+    return super.encode(rawPassword);
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    int cost = cost(encodedPassword);
+    if (cost > 0) {
+      recordCost(cost);
+    }
+    return super.matches(rawPassword, encodedPassword);
+  }
+
+  /**
+   * Reports whether a stored hash was encoded with a cost lower than the calibrated one.
+   *
+   * <p>Hashes with a higher cost are never downgraded: nodes calibrating to different costs would
+   * otherwise rehash and save the password on every login, as requests alternate between them.
+   *
+   * @param encodedPassword the stored hash.
+   * @return true if the hash should be encoded again, false otherwise.
+   */
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    int cost = cost(encodedPassword);
+    return cost > 0 && cost < strength;
+  }
+
+  private void recordCost(int cost) {
+    Counter.builder("auth.hashing.cost")
+        .description("Password hashes encoded or checked, by BCrypt cost")
+        .tag("cost", Integer.toString(cost))
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private static long measure(int strength) {
+    String salt = BCrypt.gensalt(strength);
+    long start = System.nanoTime();
+    BCrypt.hashpw("calibration-password", salt);
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Reads the cost of a BCrypt hash, formatted as {@code $2a$10$...}.
+   *
+   * @return the cost, or 0 if the value is not a BCrypt hash.
+   */
+  private static int cost(String encodedPassword) {
+    if (encodedPassword == null || encodedPassword.length() < 7) {
+      return 0;
+    }
+    int separator = encodedPassword.indexOf('$', 1);
+    if (encodedPassword.charAt(0) != '$'
+        || separator < 0
+        || separator + 3 >= encodedPassword.length()) {
+      return 0;
+    }
+    String cost = encodedPassword.substring(separator + 1, separator + 3);
+    if (!Character.isDigit(cost.charAt(0)) || !Character.isDigit(cost.charAt(1))) {
+      return 0;
+    }
+    return Integer.parseInt(cost);
+  }
+}
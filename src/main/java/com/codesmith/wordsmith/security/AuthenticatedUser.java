@@ -0,0 +1,29 @@
+package com.codesmith.wordsmith.security;
+
+import java.util.Collection;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Principal of an authenticated request.
+ *
+ * <p>Extends Spring Security's {@link User} with the database ID of the user, so that it can be
+ * embedded in issued tokens and restored from them without loading the user.
+ *
+ * @version 1.0
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+  private final Long id;
+
+  public AuthenticatedUser(
+      Long id,
+      String username,
+      String password,
+      Collection<? extends GrantedAuthority> authorities) {
+    super(username, password, authorities);
+    this.id = id;
+  }
+}
@@ -1,11 +1,14 @@
 package com.codesmith.wordsmith.security;
 
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,8 +16,8 @@ import org.springframework.web.bind.annotation.RestController;
 /**
  * Controller class for handling authentication-related requests.
  *
- * <p>This class provides endpoints for user registration and authentication by interacting with the
- * AuthenticationService.
+ * <p>This class provides endpoints for user registration, authentication, token renewal and
+ * logout by interacting with the AuthenticationService.
  *
  * @version 1.0
  */
@@ -51,4 +54,31 @@ public class AuthenticationController {
       @Valid @RequestBody final AuthenticationRequestDto request) {
     return authService.authenticate(request);
   }
+
+  /**
+   * Renews the tokens of a user from a refresh token, without checking their password.
+   *
+   * @param request the refresh request containing the refresh token.
+   * @return an {@link AuthenticationResponseDto} containing the new JWT and refresh tokens.
+   */
+  @PostMapping("/refresh")
+  @ResponseStatus(HttpStatus.OK)
+  public AuthenticationResponseDto refresh(@Valid @RequestBody final RefreshRequestDto request) {
+    return authService.refresh(request);
+  }
+
+  /**
+   * Logs the user out by revoking the bearer token of the request and, if given, its refresh
+   * token.
+   *
+   * @param authorization the authorization header holding the token to revoke.
+   * @param request the optional refresh request containing the refresh token to revoke.
+   */
+  @PostMapping("/logout")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void logout(
+      @RequestHeader(AUTHORIZATION) final String authorization,
+      @RequestBody(required = false) final RefreshRequestDto request) {
+    authService.logout(authorization, request);
+  }
 }
@@ -1,3 +1,3 @@
 package com.codesmith.wordsmith.security;
 
-public record AuthenticationResponseDto(String token) {}
+public record AuthenticationResponseDto(String token, String refreshToken) {}
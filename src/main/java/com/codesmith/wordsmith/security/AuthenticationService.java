@@ -2,9 +2,15 @@ package com.codesmith.wordsmith.security;
 
 import com.codesmith.wordsmith.exception.AlreadyExistException;
 import com.codesmith.wordsmith.user.User;
+import com.codesmith.wordsmith.user.UserChangedEvent;
 import com.codesmith.wordsmith.user.UserRepository;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
 import java.util.HashMap;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,12 +20,14 @@ import org.springframework.stereotype.Service;
 /**
  * Service class for handling authentication and user registration.
  *
- * <p>This class provides methods to register new users and authenticate existing users
- * using username and password. It also handles user uniqueness validation.</p>
+ * <p>This class provides methods to register new users, authenticate existing users
+ * using username and password, renew their tokens and log them out. It also handles user
+ * uniqueness validation.</p>
  *
  * @version 1.0
  */
 @Service
+@Timed("service.invocations")
 @RequiredArgsConstructor
 public class AuthenticationService {
 
@@ -27,12 +35,17 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authManager;
     private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserExistenceFilter existenceFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Registers a new user in the system.
      *
      * <p>This method validates the uniqueness of the username and email,
-     * encodes the password, and saves the new user entity to the database.</p>
+     * encodes the password, and saves the new user entity to the database. A
+     * {@link UserChangedEvent} is published so that every node records the new username and email.</p>
      *
      * @param request the registration request containing user details.
      * @return a success message indicating the user's registration status.
@@ -46,15 +59,23 @@ public class AuthenticationService {
                 .password(passwordEncoder.encode(request.password()))
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException exception) {
+            // Registered concurrently, or on another node before its event reached this one
+            throw new AlreadyExistException("User already exists with username or email: " + request.username());
+        }
+        eventPublisher.publishEvent(UserChangedEvent.created(savedUser));
         return "User registered successfully with id: " + savedUser.getId();
     }
 
     /**
      * Validates the uniqueness of the username and email during registration.
      *
-     * <p>This method checks if the username or email already exists in the database,
-     * throwing an exception if either is found.</p>
+     * <p>This method checks if the username or email already exists, throwing an exception if
+     * either is found. Values the {@link UserExistenceFilter} knows to be free are accepted without
+     * a query; the others are checked with a single query that loads no user.</p>
      *
      * @param request the registration request containing the username and email to validate.
      * @throws AlreadyExistException if the username or email already exists in the system.
@@ -63,11 +84,16 @@ public class AuthenticationService {
         String username = request.username();
         String email = request.email();
 
-        if (userRepository.findByUsername(username).isPresent()) {
+        if (!existenceFilter.mightBeTaken(username, email)) {
+            return;
+        }
+
+        List<String> matches = userRepository.findUsernamesByUsernameOrEmail(username, email);
+        if (matches.contains(username)) {
             throw new AlreadyExistException("User already exists with username: " + username);
         }
 
-        if (userRepository.findByEmail(email).isPresent()) {
+        if (!matches.isEmpty()) {
             throw new AlreadyExistException("User already exists with email: " + email);
         }
     }
@@ -76,10 +102,10 @@ public class AuthenticationService {
      * Authenticates a user by validating their credentials.
      *
      * <p>This method attempts to authenticate the user with the provided username and password,
-     * generating a JWT token upon successful authentication.</p>
+     * generating a JWT token and a refresh token upon successful authentication.</p>
      *
      * @param request the authentication request containing user credentials.
-     * @return an AuthenticationResponseDto containing the generated JWT token.
+     * @return an AuthenticationResponseDto containing the generated JWT and refresh tokens.
      * @throws BadCredentialsException if the username or password is incorrect.
      */
     public AuthenticationResponseDto authenticate(AuthenticationRequestDto request) {
@@ -87,10 +113,58 @@ public class AuthenticationService {
                 authManager.authenticate(
                         new UsernamePasswordAuthenticationToken(
                                 request.username(), request.password()));
-        var user = ((org.springframework.security.core.userdetails.User) auth.getPrincipal());
+        var user = (AuthenticatedUser) auth.getPrincipal();
+        return new AuthenticationResponseDto(generateToken(user), refreshTokenService.issue(user));
+    }
+
+    /**
+     * Renews the tokens of a user from a refresh token.
+     *
+     * <p>The refresh token is consumed and replaced by a new one. Unlike {@link #authenticate},
+     * no password is checked, so renewing tokens does not pay for password hashing.</p>
+     *
+     * @param request the refresh request containing the refresh token.
+     * @return an AuthenticationResponseDto containing the new JWT and refresh tokens.
+     * @throws BadCredentialsException if the refresh token is invalid, expired or already used.
+     */
+    public AuthenticationResponseDto refresh(RefreshRequestDto request) {
+        var rotation = refreshTokenService.rotate(request.refreshToken());
+        return new AuthenticationResponseDto(generateToken(rotation.user()), rotation.refreshToken());
+    }
+
+    /**
+     * Logs a user out by revoking the token they authenticated with.
+     *
+     * <p>The token is rejected by every node until it expires. When a refresh token is given,
+     * it is revoked along with every token that was rotated from the same authentication.</p>
+     *
+     * @param authorization the value of the authorization header holding the bearer token.
+     * @param request       the refresh request containing the refresh token to revoke, or {@code null}.
+     * @throws BadCredentialsException if the header does not hold a valid token.
+     */
+    public void logout(String authorization, RefreshRequestDto request) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Bearer token is missing");
+        }
+        try {
+            revocationService.revoke(jwtService.verify(authorization.substring(7)));
+        } catch (JwtException | IllegalArgumentException exception) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        if (request != null && request.refreshToken() != null) {
+            refreshTokenService.revoke(request.refreshToken());
+        }
+    }
+
+    /**
+     * Generates a JWT token for an authenticated user.
+     *
+     * @param user the authenticated user.
+     * @return the generated JWT token.
+     */
+    private String generateToken(AuthenticatedUser user) {
         var claims = new HashMap<String, Object>();
         claims.put("username", user.getUsername());
-        var token = jwtService.generateToken(claims, user);
-        return new AuthenticationResponseDto(token);
+        return jwtService.generateToken(claims, user);
     }
 }
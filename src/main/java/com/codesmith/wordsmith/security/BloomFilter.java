@@ -0,0 +1,96 @@
+package com.codesmith.wordsmith.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ *
+ * <p>Answers whether a value might have been added, with no false negatives and a false positive
+ * rate close to the one it was sized for. Bits are set with lock-free compare-and-set, so adding
+ * and querying never block. Values cannot be removed; callers rebuild the filter when too many
+ * values become stale.
+ *
+ * @version 1.0
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Creates a filter sized for the given number of values and false positive probability.
+   *
+   * @param expectedInsertions the number of values expected to be added.
+   * @param falsePositiveProbability the desired false positive probability, between 0 and 1.
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+    if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+      throw new IllegalArgumentException("Invalid Bloom filter sizing");
+    }
+    long optimalBits =
+        (long)
+            Math.ceil(
+                -expectedInsertions
+                    * Math.log(falsePositiveProbability)
+                    / (Math.log(2) * Math.log(2)));
+    this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+    this.bitCount = bits.length() * 64L;
+    this.hashCount =
+        Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+  }
+
+  /**
+   * Adds a value to the filter.
+   *
+   * @param value the value to add.
+   */
+  public void put(String value) {
+    long hash = hash(value);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Integer.toUnsignedLong(first + i * second) % bitCount;
+      int word = (int) (index >>> 6);
+      long mask = 1L << index;
+      long current = bits.get(word);
+      while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+        current = bits.get(word);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a value might have been added to the filter.
+   *
+   * @param value the value to check.
+   * @return false if the value was definitely never added, true if it might have been.
+   */
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Integer.toUnsignedLong(first + i * second) % bitCount;
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** 64-bit FNV-1a over the characters of the value, finished with the MurmurHash3 mixer. */
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
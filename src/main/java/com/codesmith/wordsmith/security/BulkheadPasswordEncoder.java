@@ -0,0 +1,153 @@
+package com.codesmith.wordsmith.security;
+
+import com.codesmith.wordsmith.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder that runs the hashing of a delegate encoder on a dedicated, bounded executor.
+ *
+ * <p>Password hashing is deliberately slow, so a burst of logins or registrations could otherwise
+ * occupy every request thread and stall unrelated endpoints. Here at most one hash per thread of
+ * the executor runs at a time, at most {@code queueCapacity} more wait for their turn, and any
+ * further request is rejected at once with a {@link ServiceUnavailableException} instead of
+ * queuing behind them.
+ *
+ * <p>Publishes the {@code auth.hashing.queue} and {@code auth.hashing.active} gauges, the {@code
+ * auth.hashing} timer of hash durations, tagged by operation, and the {@code
+ * auth.hashing.rejected} counter.
+ *
+ * @version 1.0
+ */
+public class BulkheadPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final Duration retryAfter;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejections;
+
+  /**
+   * Creates an encoder running the hashing of the delegate on its own executor.
+   *
+   * @param delegate the encoder doing the actual hashing.
+   * @param threads the number of hashes computed in parallel.
+   * @param queueCapacity the number of hashes that may wait for a thread.
+   * @param retryAfter the delay suggested to rejected clients.
+   * @param meterRegistry the registry the metrics are published to.
+   */
+  public BulkheadPasswordEncoder(
+      PasswordEncoder delegate,
+      int threads,
+      int queueCapacity,
+      Duration retryAfter,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.retryAfter = retryAfter;
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("auth.hashing.queue", executor, e -> e.getQueue().size())
+        .description("Password hashes waiting for a thread")
+        .register(meterRegistry);
+    Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Password hashes being computed")
+        .register(meterRegistry);
+    this.encodeTimer = hashTimer(meterRegistry, "encode");
+    this.matchesTimer = hashTimer(meterRegistry, "matches");
+    this.rejections =
+        Counter.builder("auth.hashing.rejected")
+            .description("Password hashes rejected because the queue was full")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  /**
+   * Runs a hashing task on the executor and waits for its result.
+   *
+   * @throws ServiceUnavailableException if the queue is full or the wait is interrupted.
+   */
+  private <T> T submit(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException exception) {
+      rejections.increment();
+      throw new ServiceUnavailableException(
+          "Too many authentication requests, please retry later", retryAfter);
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException exception) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException("Authentication was interrupted", retryAfter);
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(exception.getCause());
+    }
+  }
+
+  private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder("auth.hashing")
+        .description("Time spent computing password hashes")
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+
+  /** Names the hashing threads and keeps them from blocking shutdown. */
+  private static final class HashingThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -2,17 +2,19 @@ package com.codesmith.wordsmith.security;
 
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,14 +23,42 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * Filter for handling JWT authentication in incoming HTTP requests.
  *
  * <p>This filter checks for the presence of a JWT in the authorization header,
- * validates it, and sets the authentication in the security context if valid.</p>
+ * verifies it once through {@link JwtService#verify(String)}, and sets the authentication in the security context if valid. The user behind the
+ * token is resolved through the {@link PrincipalCache}, so repeated requests by the same user do not
+ * query the database. In stateless mode the principal is instead restored from the signed claims of
+ * the token, and only the in-memory revocation check stands between the token and the request.</p>
+ *
+ * <p>The time taken to authenticate a request from its token is recorded by the
+ * {@code security.jwt.authentication} timer, tagged with whether the token was accepted.</p>
  */
 @Component
-@RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService revocationService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+    private final Timer accepted;
+    private final Timer rejected;
+
+    public JwtFilter(
+            JwtService jwtService,
+            PrincipalCache principalCache,
+            TokenRevocationService revocationService,
+            MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.principalCache = principalCache;
+        this.revocationService = revocationService;
+        this.accepted = authenticationTimer(meterRegistry, "accepted");
+        this.rejected = authenticationTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer authenticationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("security.jwt.authentication")
+                .description("Time taken to authenticate a request from its bearer token")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     /**
      * Filters incoming requests to validate JWTs and set the authentication in the security context.
@@ -49,8 +79,6 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader(AUTHORIZATION);
-        final String jwt;
-        final String username;
 
         // Check if the authorization header is present and has a valid format
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -58,22 +86,48 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        jwt = authHeader.substring(7); // Extract the JWT token
-        username = jwtService.extractUsername(jwt); // Extract the username from the JWT
+        long start = System.nanoTime();
+        boolean authenticated = authenticate(request, authHeader.substring(7));
+        (authenticated ? accepted : rejected).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-        // Check if the username is not null and the security context is empty
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            // Validate the JWT and set authentication in the security context if valid
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        filterChain.doFilter(request, response); // Continue the filter chain
+    }
+
+    /**
+     * Authenticates the request from its JWT, unless the security context already holds an authentication.
+     *
+     * @param request  the incoming HTTP request.
+     * @param jwtToken the JWT of the request.
+     * @return true if the token was accepted, false otherwise.
+     */
+    private boolean authenticate(HttpServletRequest request, String jwtToken) {
+        final VerifiedToken token;
+
+        // Verify the JWT once; an invalid or expired token leaves the request unauthenticated
+        try {
+            token = jwtService.verify(jwtToken);
+        } catch (JwtException | IllegalArgumentException exception) {
+            return false;
         }
 
-        filterChain.doFilter(request, response); // Continue the filter chain
+        // Check if the username is not null and the security context is empty
+        if (token.username() == null) {
+            return false;
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return true;
+        }
+        UserDetails userDetails = jwtService.isStateless()
+                ? token.toPrincipal()
+                : principalCache.getUser(token.username());
+        // Validate the JWT and set authentication in the security context if valid
+        if (!jwtService.isTokenValid(token, userDetails) || revocationService.isRevoked(token)) {
+            return false;
+        }
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authenticationToken.setDetails(detailsSource.buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        return true;
     }
 }
@@ -1,14 +1,27 @@
 package com.codesmith.wordsmith.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
-import java.security.Key;
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,17 +30,79 @@ import org.springframework.stereotype.Service;
 /**
  * Service class for handling JWT token operations.
  *
- * <p>This class provides functionality to generate, validate, and extract information from JWT tokens.</p>
+ * <p>This class provides functionality to generate, validate, and extract information from JWT tokens.
+ * Tokens carry a unique ID, so that they can be revoked individually, and the user ID and authorities
+ * of the user, so that in stateless mode the principal can be restored from a token without loading
+ * the user.</p>
+ *
+ * <p>The signing key and the parser are built once at startup. Each token is verified once into a
+ * {@link VerifiedToken}, which is memoized by the digest of the token until the token expires, so a
+ * client reusing its token pays for signature verification and claim parsing only once.</p>
  */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret:secret}")
+    static final String AUTHORITIES_CLAIM = "authorities";
+    static final String USER_ID_CLAIM = "uid";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    @Value("${jwt.secret:}")
     private String jwtSecret;
 
-    @Value("${jwt.expiry:900000}")
+    @Value("${jwt.expiration:900000}")
     private long jwtExpiry;
 
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean stateless;
+
+    @Value("${jwt.stateless.expiration:300000}")
+    private long statelessExpiry;
+
+    @Value("${jwt.verification-cache.maximum-size:10000}")
+    private long verificationCacheSize;
+
+    private SecretKey signInKey;
+    private JwtParser parser;
+    private Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+
+    /**
+     * Builds the signing key, the parser and the cache of verified tokens.
+     *
+     * @throws IllegalStateException if the secret is missing, is not Base64 or is shorter than 256 bits.
+     */
+    @PostConstruct
+    void init() {
+        signInKey = signingKey(jwtSecret);
+        parser = Jwts.parser().verifyWith(signInKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verificationCacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
+    }
+
+    /**
+     * Decodes the secret into a signing key, refusing to start with a missing or weak one.
+     *
+     * @param secret the Base64-encoded secret.
+     * @return the signing key.
+     */
+    private static SecretKey signingKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("jwt.secret is not set: set JWT_SECRET to a Base64-encoded key");
+        }
+        byte[] key;
+        try {
+            key = Decoders.BASE64.decode(secret.trim());
+        } catch (DecodingException exception) {
+            throw new IllegalStateException("jwt.secret is not Base64-encoded", exception);
+        }
+        if (key.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("jwt.secret must be at least " + MIN_SECRET_BYTES * 8
+                    + " bits long, it is " + key.length * 8);
+        }
+        return Keys.hmacShaKeyFor(key);
+    }
+
     /**
      * Generates a JWT token using the provided claims and user details.
      *
@@ -36,7 +111,28 @@ public class JwtService {
      * @return the generated JWT token as a String.
      */
     public String generateToken(Map<String, Object> claims, UserDetails userDetails) {
-        return buildToken(claims, userDetails, jwtExpiry);
+        return buildToken(claims, userDetails, getExpiration());
+    }
+
+    /**
+     * Indicates whether tokens are trusted on their own, without reloading the user they belong to.
+     *
+     * @return true if stateless verification is enabled, false otherwise.
+     */
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * Returns the lifetime of the tokens issued by this service.
+     *
+     * <p>Stateless tokens are issued with the shorter {@code jwt.stateless.expiration} lifetime, which
+     * bounds how long a token outlives a change to its user.</p>
+     *
+     * @return the token lifetime in milliseconds.
+     */
+    public long getExpiration() {
+        return stateless ? statelessExpiry : jwtExpiry;
     }
 
     /**
@@ -54,93 +150,109 @@ public class JwtService {
                 .map(GrantedAuthority::getAuthority)
                 .toList();
 
-        return Jwts
+        var builder = Jwts
                 .builder()
+                .claims(extraClaims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .claim("authorities", authorities)
-                .signWith(getSignInKey())
+                .claim(AUTHORITIES_CLAIM, authorities);
+        if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+            builder.claim(USER_ID_CLAIM, authenticatedUser.getId());
+        }
+        return builder
+                .signWith(signInKey)
                 .compact();
     }
 
     /**
-     * Retrieves the signing key used to create the JWT.
+     * Verifies the signature and expiration of the JWT token and returns its claims.
      *
-     * @return the signing key as a Key object.
+     * <p>Tokens verified recently are served from memory without being parsed again. Each
+     * verification is recorded as a {@link JwtVerificationEvent} when Flight Recorder is recording.</p>
+     *
+     * @param jwtToken the JWT token to verify.
+     * @return the {@link VerifiedToken} holding the claims of the token.
+     * @throws JwtException if the token is malformed, its signature is invalid or it has expired.
      */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public VerifiedToken verify(String jwtToken) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        try {
+            VerifiedToken token = verifiedTokens.get(digest(jwtToken), digest -> {
+                event.parsed = true;
+                return parse(jwtToken);
+            });
+            event.valid = true;
+            return token;
+        } finally {
+            event.commit();
+        }
     }
 
     /**
-     * Validates the provided JWT token against the user details.
+     * Validates the verified token against the user details.
      *
-     * @param jwtToken    the JWT token to validate.
+     * @param token       the verified token to validate.
      * @param userDetails the user details to validate against.
-     * @return true if the token is valid, false otherwise.
+     * @return true if the token belongs to the user and has not expired, false otherwise.
      */
-    public boolean isTokenValid(String jwtToken, UserDetails userDetails) {
-        final String userName = extractUsername(jwtToken);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(jwtToken);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.username().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
     /**
-     * Checks if the given JWT token has expired.
+     * Parses the JWT token and verifies its signature and expiration.
      *
-     * @param jwtToken the JWT token to check.
-     * @return true if the token has expired, false otherwise.
+     * @param jwtToken the JWT token to parse.
+     * @return the {@link VerifiedToken} holding the claims of the token.
      */
-    private boolean isTokenExpired(String jwtToken) {
-        return extractExpiration(jwtToken).before(new Date());
+    private VerifiedToken parse(String jwtToken) {
+        Claims claims = parser.parseSignedClaims(jwtToken).getPayload();
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                authorities == null ? List.of() : authorities.stream().map(Object::toString).toList(),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant());
     }
 
     /**
-     * Extracts the expiration date from the JWT token.
+     * Computes the SHA-256 digest of the JWT token, used as the key of verified tokens.
      *
-     * @param jwtToken the JWT token from which to extract the expiration date.
-     * @return the expiration date as a Date object.
+     * @param jwtToken the JWT token to digest.
+     * @return the digest wrapped in a {@link ByteBuffer}, which compares by content.
      */
-    private Date extractExpiration(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getExpiration);
+    private static ByteBuffer digest(String jwtToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(jwtToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
     }
 
     /**
-     * Extracts the username from the JWT token.
-     *
-     * @param jwtToken the JWT token from which to extract the username.
-     * @return the username as a String.
+     * Expires a memoized token when the token itself expires.
      */
-    public String extractUsername(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getSubject);
-    }
+    private static final class UntilTokenExpires implements Expiry<ByteBuffer, VerifiedToken> {
 
-    /**
-     * Extracts a specific claim from the JWT token using a provided resolver function.
-     *
-     * @param jwtToken      the JWT token from which to extract the claim.
-     * @param claimResolver the function to extract the claim.
-     * @param <T>           the type of the claim.
-     * @return the extracted claim of type T.
-     */
-    public <T> T extractClaim(String jwtToken, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(jwtToken);
-        return claimResolver.apply(claims);
-    }
+        @Override
+        public long expireAfterCreate(ByteBuffer digest, VerifiedToken token, long currentTime) {
+            return Duration.between(Instant.now(), token.expiresAt()).toNanos();
+        }
 
-    /**
-     * Extracts all claims from the JWT token.
-     *
-     * @param jwtToken the JWT token from which to extract all claims.
-     * @return the extracted claims as a Claims object.
-     * @throws SignatureException if the JWT signature validation fails.
-     */
-    private Claims extractAllClaims(String jwtToken) {
-        return Jwts.parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseSignedClaims(jwtToken)
-                .getPayload();
+        @Override
+        public long expireAfterUpdate(ByteBuffer digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
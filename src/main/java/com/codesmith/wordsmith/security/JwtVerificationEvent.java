@@ -0,0 +1,28 @@
+package com.codesmith.wordsmith.security;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the verification of a token by the {@link JwtService}.
+ *
+ * @version 1.0
+ */
+@Name("wordsmith.JwtVerification")
+@Label("JWT Verification")
+@Category({"Word Smith", "Security"})
+@Description("Verification of the signature and expiration of a bearer token")
+@StackTrace(false)
+final class JwtVerificationEvent extends Event {
+
+  @Label("Parsed")
+  @Description("Whether the token was parsed, rather than served from the verified tokens")
+  boolean parsed;
+
+  @Label("Valid")
+  boolean valid;
+}
@@ -0,0 +1,58 @@
+package com.codesmith.wordsmith.security;
+
+import com.codesmith.wordsmith.user.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, short-lived cache of the principals resolved for authenticated requests.
+ *
+ * <p>Lets {@link JwtFilter} resolve the user behind a token without a database query on every
+ * request. Entries expire after a short time-to-live and are invalidated as soon as a {@link
+ * UserChangedEvent} is received, whether the change happened on this node or another one.
+ *
+ * @version 1.0
+ */
+@Component
+public class PrincipalCache {
+
+  private final UserDetailsService userDetailsService;
+  private final Cache<String, UserDetails> principals;
+
+  public PrincipalCache(
+      UserDetailsService userDetailsService,
+      @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+      @Value("${security.principal-cache.time-to-live:60s}") Duration timeToLive) {
+    this.userDetailsService = userDetailsService;
+    this.principals =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).build();
+  }
+
+  /**
+   * Returns the principal for the given username, loading it on a cache miss.
+   *
+   * @param username the username to resolve.
+   * @return the {@link UserDetails} of the user.
+   * @throws UsernameNotFoundException if no user exists with the given username.
+   */
+  public UserDetails getUser(String username) {
+    return principals.get(username, userDetailsService::loadUserByUsername);
+  }
+
+  /**
+   * Drops the cached principal of a user that was updated or deleted.
+   *
+   * @param event the user change event.
+   */
+  @EventListener
+  public void onUserChanged(UserChangedEvent event) {
+    principals.invalidate(event.username());
+  }
+}
@@ -0,0 +1,141 @@
+package com.codesmith.wordsmith.security;
+
+import com.codesmith.wordsmith.exception.ErrorResponse;
+import com.codesmith.wordsmith.security.RateLimiter.Limit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter throttling the requests of each client with the {@link RateLimiter}.
+ *
+ * <p>Runs right after {@link JwtFilter}: authenticated requests are counted against the user
+ * they were made by, anonymous ones against the client IP. Each route has its own limit, with
+ * authentication and search stricter than the rest of the API. Requests over the limit are
+ * answered with {@code 429 Too Many Requests} and a {@code Retry-After} header.
+ *
+ * <p>Behind a load balancer the remote address is the one of the proxy, shared by every client.
+ * The server resolves the client IP from the {@code X-Forwarded-For} header instead, but only
+ * when the request comes from one of the trusted proxies ({@code server.forward-headers-strategy}
+ * and {@code server.tomcat.remoteip.internal-proxies}); others cannot spoof their address.
+ *
+ * @version 1.0
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final RateLimiter rateLimiter;
+  private final ObjectMapper objectMapper;
+  private final Map<Route, Limit> limits = new EnumMap<>(Route.class);
+  private final Map<Route, Counter> rejections = new EnumMap<>(Route.class);
+
+  public RateLimitFilter(
+      RateLimiter rateLimiter,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${security.rate-limit.auth.requests:10}") long authRequests,
+      @Value("${security.rate-limit.auth.period:1m}") Duration authPeriod,
+      @Value("${security.rate-limit.search.requests:30}") long searchRequests,
+      @Value("${security.rate-limit.search.period:1m}") Duration searchPeriod,
+      @Value("${security.rate-limit.default.requests:300}") long defaultRequests,
+      @Value("${security.rate-limit.default.period:1m}") Duration defaultPeriod) {
+    this.rateLimiter = rateLimiter;
+    this.objectMapper = objectMapper;
+    limits.put(Route.AUTH, new Limit(authRequests, authPeriod));
+    limits.put(Route.SEARCH, new Limit(searchRequests, searchPeriod));
+    limits.put(Route.DEFAULT, new Limit(defaultRequests, defaultPeriod));
+    for (Route route : Route.values()) {
+      rejections.put(
+          route,
+          Counter.builder("http.server.requests.throttled")
+              .description("Requests rejected by the rate limiter")
+              .tag("route", route.name().toLowerCase())
+              .register(meterRegistry));
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    Route route = Route.of(request.getServletPath());
+    Duration wait = rateLimiter.tryAcquire(route.prefix + client(request), limits.get(route));
+    if (wait.isZero()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    rejections.get(route).increment();
+    long retryAfter = Math.max(1, (wait.toMillis() + 999) / 1000);
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(
+        response.getOutputStream(),
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .error("Too Many Requests")
+            .message("Rate limit exceeded, please retry in " + retryAfter + " seconds")
+            .path("uri=" + request.getRequestURI())
+            .build());
+  }
+
+  /**
+   * Identifies the client: the authenticated user if any, the remote address otherwise, already
+   * resolved from the {@code X-Forwarded-For} header of a trusted proxy.
+   */
+  private static String client(HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null
+        && authentication.isAuthenticated()
+        && !(authentication instanceof AnonymousAuthenticationToken)) {
+      return "user:" + authentication.getName();
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  /** Groups of endpoints sharing a limit. */
+  private enum Route {
+    AUTH("auth:"),
+    SEARCH("search:"),
+    DEFAULT("default:");
+
+    private final String prefix;
+
+    Route(String prefix) {
+      this.prefix = prefix;
+    }
+
+    static Route of(String path) {
+      if (path.startsWith("/api/auth/")) {
+        return AUTH;
+      }
+      if (path.startsWith("/api/posts/search/")) {
+        return SEARCH;
+      }
+      return DEFAULT;
+    }
+  }
+}
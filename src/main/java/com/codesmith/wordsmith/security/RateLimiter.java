@@ -0,0 +1,141 @@
+package com.codesmith.wordsmith.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket rate limiter, keyed by client and route.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next
+ * request (the generic cell rate algorithm), updated with compare-and-set: a check takes a few
+ * nanoseconds and never blocks. Buckets left idle for a full period have refilled completely, so
+ * they are evicted after that long without losing anything.
+ *
+ * <p>In shared mode, requests accepted by the local bucket are also checked against a bucket in
+ * Redis, so that the limit applies across every node. Redis is consulted only after the local
+ * check, and the limiter fails open if Redis is unavailable.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+  private static final String KEY_PREFIX = "rate-limit:";
+
+  /** Same algorithm as {@link Bucket}, on the Redis clock, in microseconds. */
+  private static final RedisScript<Long> SHARED_BUCKET_SCRIPT =
+      RedisScript.of(
+          """
+          local time = redis.call('TIME')
+          local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+          local interval = tonumber(ARGV[1])
+          local tolerance = tonumber(ARGV[2])
+          local tat = math.max(tonumber(redis.call('GET', KEYS[1]) or now), now)
+          local wait = tat - now - tolerance
+          if wait > 0 then
+            return wait
+          end
+          redis.call('SET', KEYS[1], tat + interval, 'PX', math.ceil((tat + interval - now) / 1000))
+          return 0
+          """,
+          Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final boolean shared;
+  private final Cache<String, Bucket> buckets;
+
+  public RateLimiter(
+      StringRedisTemplate redisTemplate,
+      @Value("${security.rate-limit.shared:false}") boolean shared,
+      @Value("${security.rate-limit.maximum-buckets:100000}") long maximumBuckets,
+      @Value("${security.rate-limit.idle-timeout:1m}") Duration idleTimeout) {
+    this.redisTemplate = redisTemplate;
+    this.shared = shared;
+    this.buckets =
+        Caffeine.newBuilder().maximumSize(maximumBuckets).expireAfterAccess(idleTimeout).build();
+  }
+
+  /**
+   * Takes a token from the bucket of a client.
+   *
+   * @param key the key identifying the client and the route.
+   * @param limit the limit the bucket enforces.
+   * @return zero if the request is allowed, otherwise the time until a token becomes available.
+   */
+  public Duration tryAcquire(String key, Limit limit) {
+    long wait = buckets.get(key, k -> new Bucket()).tryAcquire(System.nanoTime(), limit);
+    if (wait > 0) {
+      return Duration.ofNanos(wait);
+    }
+    return shared ? tryAcquireShared(key, limit) : Duration.ZERO;
+  }
+
+  private Duration tryAcquireShared(String key, Limit limit) {
+    try {
+      Long wait =
+          redisTemplate.execute(
+              SHARED_BUCKET_SCRIPT,
+              List.of(KEY_PREFIX + key),
+              Long.toString(limit.interval() / 1000),
+              Long.toString(limit.tolerance() / 1000));
+      return wait == null ? Duration.ZERO : Duration.ofNanos(wait * 1000);
+    } catch (RuntimeException exception) {
+      log.warn("Failed to check the shared rate limit of {}", key, exception);
+      return Duration.ZERO;
+    }
+  }
+
+  /**
+   * Maximum number of requests a client may make per period, all at once or spread out.
+   *
+   * @param requests the number of requests allowed per period.
+   * @param period the period over which the requests are counted.
+   */
+  public record Limit(long requests, Duration period) {
+
+    public Limit {
+      if (requests <= 0 || period.isNegative() || period.isZero()) {
+        throw new IllegalArgumentException("Invalid rate limit");
+      }
+    }
+
+    /** Time it takes for one token to be refilled, in nanoseconds. */
+    long interval() {
+      return period.toNanos() / requests;
+    }
+
+    /** How far ahead of the refill rate a burst may go, in nanoseconds. */
+    long tolerance() {
+      return period.toNanos() - interval();
+    }
+  }
+
+  /** Lock-free bucket tracking the theoretical arrival time of the next request. */
+  private static final class Bucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    long tryAcquire(long now, Limit limit) {
+      while (true) {
+        long current = theoreticalArrival.get();
+        long arrival = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+        long wait = arrival - now - limit.tolerance();
+        if (wait > 0) {
+          return wait;
+        }
+        if (theoreticalArrival.compareAndSet(current, arrival + limit.interval())) {
+          return 0;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,6 @@
+package com.codesmith.wordsmith.security;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequestDto(
+    @NotBlank(message = "Refresh token cannot be blank") String refreshToken) {}
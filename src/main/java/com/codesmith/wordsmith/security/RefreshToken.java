@@ -0,0 +1,58 @@
+package com.codesmith.wordsmith.security;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Refresh token issued alongside an access token.
+ *
+ * <p>Only the SHA-256 hash of the token is stored. Each token can be used once: using it issues
+ * the next token of the same family, so a token used a second time reveals that it was stolen.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+    name = "refresh_tokens",
+    indexes = {
+      @Index(name = "idx_refresh_tokens_family", columnList = "familyId"),
+      @Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt")
+    })
+public class RefreshToken {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(unique = true, nullable = false, length = 64)
+  private String tokenHash;
+
+  @Column(nullable = false, length = 36)
+  private String familyId;
+
+  @Column(nullable = false)
+  private Long userId;
+
+  @Column(nullable = false)
+  private String username;
+
+  @Column(nullable = false)
+  private boolean used;
+
+  @Column(nullable = false)
+  private Instant expiresAt;
+}
@@ -0,0 +1,37 @@
+package com.codesmith.wordsmith.security;
+
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  /**
+   * Marks a token as used, unless it already was.
+   *
+   * @param id the ID of the token.
+   * @return 1 if the token was marked, 0 if it had already been used.
+   */
+  @Modifying
+  @Query("update RefreshToken t set t.used = true where t.id = :id and t.used = false")
+  int markUsed(@Param("id") Long id);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.familyId = :familyId")
+  int deleteByFamilyId(@Param("familyId") String familyId);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.userId = :userId")
+  int deleteByUserId(@Param("userId") Long userId);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,165 @@
+package com.codesmith.wordsmith.security;
+
+import com.codesmith.wordsmith.user.UserChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service that issues and rotates refresh tokens.
+ *
+ * <p>Refresh tokens are opaque random values; only their SHA-256 hash is stored, so a token is
+ * found with a single indexed lookup and a leaked table holds nothing usable. Renewing an access
+ * token costs that lookup and a signature, with no password hashing.
+ *
+ * <p>Every token is used once. Using a token marks it used and issues the next token of its
+ * family; presenting a used token again means two parties hold it, so the whole family is revoked
+ * and the user has to authenticate again.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@Timed("service.invocations")
+public class RefreshTokenService {
+
+  private final SecureRandom random = new SecureRandom();
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final PrincipalCache principalCache;
+  private final Duration refreshExpiry;
+
+  public RefreshTokenService(
+      RefreshTokenRepository refreshTokenRepository,
+      PrincipalCache principalCache,
+      @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiry) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.principalCache = principalCache;
+    this.refreshExpiry = Duration.ofMillis(refreshExpiry);
+  }
+
+  /**
+   * Issues the first refresh token of a new family, after the user authenticated.
+   *
+   * @param user the authenticated user.
+   * @return the refresh token to hand to the client.
+   */
+  @Transactional
+  public String issue(AuthenticatedUser user) {
+    return issue(user.getId(), user.getUsername(), UUID.randomUUID().toString());
+  }
+
+  /**
+   * Consumes a refresh token and issues its successor.
+   *
+   * @param refreshToken the refresh token presented by the client.
+   * @return the rotated token along with the user it belongs to.
+   * @throws BadCredentialsException if the token is unknown, expired or was already used.
+   */
+  @Transactional(noRollbackFor = BadCredentialsException.class)
+  public Rotation rotate(String refreshToken) {
+    RefreshToken current =
+        refreshTokenRepository
+            .findByTokenHash(hash(refreshToken))
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+    if (current.getExpiresAt().isBefore(Instant.now())) {
+      throw new BadCredentialsException("Refresh token has expired");
+    }
+    if (refreshTokenRepository.markUsed(current.getId()) == 0) {
+      log.warn("Refresh token reused for user {}, revoking its family", current.getUsername());
+      refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+      throw new BadCredentialsException("Refresh token has already been used");
+    }
+
+    AuthenticatedUser user;
+    try {
+      user = (AuthenticatedUser) principalCache.getUser(current.getUsername());
+    } catch (UsernameNotFoundException exception) {
+      refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+      throw new BadCredentialsException("Invalid refresh token");
+    }
+    return new Rotation(user, issue(user.getId(), user.getUsername(), current.getFamilyId()));
+  }
+
+  /**
+   * Revokes the family of a refresh token, so that neither it nor its successors can be used.
+   *
+   * @param refreshToken the refresh token presented by the client.
+   */
+  @Transactional
+  public void revoke(String refreshToken) {
+    refreshTokenRepository
+        .findByTokenHash(hash(refreshToken))
+        .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+  }
+
+  /**
+   * Revokes every refresh token of a user that was deleted.
+   *
+   * <p>Only handled on the node where the user was deleted, since the tokens are shared through
+   * the database.
+   *
+   * @param event the user change event.
+   */
+  @Transactional
+  @EventListener(condition = "#event.deleted && !#event.remote")
+  public void onUserDeleted(UserChangedEvent event) {
+    refreshTokenRepository.deleteByUserId(event.userId());
+  }
+
+  /** Deletes the refresh tokens that have expired, used or not. */
+  @Transactional
+  @Scheduled(
+      fixedDelayString = "${jwt.refresh-purge-interval:PT1H}",
+      initialDelayString = "${jwt.refresh-purge-interval:PT1H}")
+  public void purgeExpired() {
+    int purged = refreshTokenRepository.deleteExpired(Instant.now());
+    log.debug("Purged {} expired refresh tokens", purged);
+  }
+
+  private String issue(Long userId, String username, String familyId) {
+    byte[] bytes = new byte[32];
+    random.nextBytes(bytes);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    refreshTokenRepository.save(
+        RefreshToken.builder()
+            .tokenHash(hash(token))
+            .familyId(familyId)
+            .userId(userId)
+            .username(username)
+            .expiresAt(Instant.now().plus(refreshExpiry))
+            .build());
+    return token;
+  }
+
+  private static String hash(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException("SHA-256 is not available", exception);
+    }
+  }
+
+  /**
+   * Outcome of a refresh token rotation.
+   *
+   * @param user the user the token belongs to.
+   * @param refreshToken the refresh token replacing the one presented.
+   */
+  public record Rotation(AuthenticatedUser user, String refreshToken) {}
+}
@@ -1,6 +1,10 @@
 package com.codesmith.wordsmith.security;
 
+import com.codesmith.wordsmith.jfr.HttpRequestEventFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,6 +17,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -20,6 +27,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
   private final JwtFilter jwtFilter;
+  private final RateLimitFilter rateLimitFilter;
+  private final HttpRequestEventFilter httpRequestEventFilter;
+
+  @Value("${server.port:8080}")
+  private int serverPort;
+
+  @Value("${management.server.port:${server.port:8080}}")
+  private int managementPort;
 
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -27,16 +42,39 @@ public class SecurityConfig {
         .authorizeHttpRequests(
             request ->
                 request
-                    .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**")
+                    .requestMatchers(
+                        "/api/auth/**",
+                        "/swagger-ui/**",
+                        "/v3/api-docs/**",
+                        "/actuator/health",
+                        "/actuator/health/**")
+                    .permitAll()
+                    .requestMatchers(onManagementPort("/actuator/prometheus"))
                     .permitAll()
+                    .requestMatchers("/actuator/prometheus", "/actuator/flightrecording")
+                    .hasAuthority("ADMIN")
                     .anyRequest()
                     .authenticated())
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-        .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        .addFilterAfter(httpRequestEventFilter, SecurityContextHolderFilter.class)
+        .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+        .addFilterAfter(rateLimitFilter, JwtFilter.class);
     return http.build();
   }
 
+  /**
+   * Matches a path requested on the management port, when the actuator is served apart from the
+   * API, so that scrapers reach it without credentials while the public port never serves it.
+   */
+  private RequestMatcher onManagementPort(String path) {
+    RequestMatcher pathMatcher = AntPathRequestMatcher.antMatcher(path);
+    return request ->
+        managementPort != serverPort
+            && request.getLocalPort() == managementPort
+            && pathMatcher.matches(request);
+  }
+
   @Bean
   public AuthenticationManager authenticationManager(
       AuthenticationConfiguration authenticationConfiguration) throws Exception {
@@ -44,7 +82,22 @@ public class SecurityConfig {
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      MeterRegistry meterRegistry,
+      @Value("${security.password-hashing.threads:0}") int threads,
+      @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${security.password-hashing.retry-after:1s}") Duration retryAfter,
+      @Value("${security.password-hashing.strength:0}") int strength,
+      @Value("${security.password-hashing.time-budget:250ms}") Duration timeBudget,
+      @Value("${security.password-hashing.min-strength:10}") int minStrength,
+      @Value("${security.password-hashing.max-strength:16}") int maxStrength) {
+    int hashingThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    BCryptPasswordEncoder bcrypt =
+        strength > 0
+            ? new AdaptiveBCryptPasswordEncoder(strength, meterRegistry)
+            : AdaptiveBCryptPasswordEncoder.calibrate(
+                timeBudget, minStrength, maxStrength, meterRegistry);
+    return new BulkheadPasswordEncoder(
+        bcrypt, hashingThreads, queueCapacity, retryAfter, meterRegistry);
   }
 }
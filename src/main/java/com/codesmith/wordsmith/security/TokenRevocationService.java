@@ -0,0 +1,190 @@
+package com.codesmith.wordsmith.security;
+
+import com.codesmith.wordsmith.user.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service that tracks which issued tokens must no longer be accepted.
+ *
+ * <p>When a user is deleted, every token issued to them up to that moment is revoked. Revocations
+ * are kept in memory so the check costs no I/O, and are received on every node through {@link
+ * UserChangedEvent}s. They are also written to Redis for the lifetime of a token, so that a node
+ * started later picks up revocations made before it joined.
+ *
+ * <p>Single tokens, revoked on logout, are identified by their ID. Revoked IDs are stored in Redis
+ * until the token expires, and every node mirrors them in a {@link BloomFilter} kept in sync over
+ * pub/sub. Checking a token that was never revoked is answered by the filter alone; only the rare
+ * possible hits are confirmed against Redis. The filter is rebuilt periodically from Redis to drop
+ * the IDs of tokens that have since expired.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+  private static final String USER_KEY_PREFIX = "auth:revoked-user:";
+  private static final String TOKEN_KEY_PREFIX = "auth:revoked-token:";
+  private static final String TOKEN_CHANNEL = "token-revocations";
+
+  private final StringRedisTemplate redisTemplate;
+  private final Duration tokenLifetime;
+  private final Cache<String, Long> revokedUsers;
+  private final long expectedRevocations;
+  private final double falsePositiveProbability;
+  private volatile BloomFilter revokedTokens;
+  private volatile BloomFilter rebuiltTokens;
+
+  public TokenRevocationService(
+      StringRedisTemplate redisTemplate,
+      RedisMessageListenerContainer listenerContainer,
+      JwtService jwtService,
+      @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+      @Value("${jwt.revocation.false-positive-probability:0.01}") double falsePositiveProbability) {
+    this.redisTemplate = redisTemplate;
+    this.tokenLifetime = Duration.ofMillis(jwtService.getExpiration());
+    this.revokedUsers = Caffeine.newBuilder().expireAfterWrite(tokenLifetime).build();
+    this.expectedRevocations = expectedRevocations;
+    this.falsePositiveProbability = falsePositiveProbability;
+    this.revokedTokens = new BloomFilter(expectedRevocations, falsePositiveProbability);
+    listenerContainer.addMessageListener(
+        (message, pattern) ->
+            addRevokedToken(new String(message.getBody(), StandardCharsets.UTF_8)),
+        new ChannelTopic(TOKEN_CHANNEL));
+  }
+
+  /** Loads the revocations made by other nodes that are still within a token lifetime. */
+  @PostConstruct
+  void loadRevocations() {
+    try {
+      scan(
+          USER_KEY_PREFIX,
+          key -> {
+            String revokedAt = redisTemplate.opsForValue().get(key);
+            if (revokedAt != null) {
+              revokedUsers.put(key.substring(USER_KEY_PREFIX.length()), Long.parseLong(revokedAt));
+            }
+          });
+      rebuildRevokedTokens();
+    } catch (RuntimeException exception) {
+      log.warn("Failed to load revocations from Redis", exception);
+    }
+  }
+
+  /**
+   * Replaces the filter of revoked tokens with one built from the IDs still stored in Redis.
+   *
+   * <p>Tokens revoked while the new filter is being built are added to both filters, so none is
+   * lost when the new filter takes over.
+   */
+  @Scheduled(
+      fixedDelayString = "${jwt.revocation.rebuild-interval:PT10M}",
+      initialDelayString = "${jwt.revocation.rebuild-interval:PT10M}")
+  public void rebuildRevokedTokens() {
+    BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveProbability);
+    rebuiltTokens = rebuilt;
+    try {
+      scan(TOKEN_KEY_PREFIX, key -> rebuilt.put(key.substring(TOKEN_KEY_PREFIX.length())));
+      revokedTokens = rebuilt;
+    } finally {
+      rebuiltTokens = null;
+    }
+  }
+
+  /**
+   * Checks whether a token has been revoked.
+   *
+   * @param token the verified token to check.
+   * @return true if the token itself was revoked, or was issued before its user was revoked, false
+   *     otherwise.
+   */
+  public boolean isRevoked(VerifiedToken token) {
+    Long revokedAt = revokedUsers.getIfPresent(token.username());
+    if (revokedAt != null && token.issuedAt().toEpochMilli() <= revokedAt) {
+      return true;
+    }
+    return token.id() != null
+        && revokedTokens.mightContain(token.id())
+        && isRevokedInRedis(token.id());
+  }
+
+  /**
+   * Revokes a single token until it expires.
+   *
+   * @param token the verified token to revoke.
+   */
+  public void revoke(VerifiedToken token) {
+    Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+    if (token.id() == null || remaining.isNegative() || remaining.isZero()) {
+      return;
+    }
+    redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + token.id(), token.username(), remaining);
+    addRevokedToken(token.id());
+    redisTemplate.convertAndSend(TOKEN_CHANNEL, token.id());
+  }
+
+  /**
+   * Revokes every token of a user that was deleted.
+   *
+   * @param event the user change event.
+   */
+  @EventListener(condition = "#event.deleted")
+  public void onUserDeleted(UserChangedEvent event) {
+    long revokedAt = System.currentTimeMillis();
+    revokedUsers.put(event.username(), revokedAt);
+    if (!event.remote()) {
+      try {
+        redisTemplate
+            .opsForValue()
+            .set(USER_KEY_PREFIX + event.username(), Long.toString(revokedAt), tokenLifetime);
+      } catch (RuntimeException exception) {
+        log.warn("Failed to store revocation of user {}", event.username(), exception);
+      }
+    }
+  }
+
+  private void addRevokedToken(String tokenId) {
+    // Read the filter being rebuilt first: once it is swapped in, revokedTokens already is that one
+    BloomFilter rebuilt = rebuiltTokens;
+    revokedTokens.put(tokenId);
+    if (rebuilt != null) {
+      rebuilt.put(tokenId);
+    }
+  }
+
+  /**
+   * Confirms a possible hit of the filter against Redis. Fails closed: a token that cannot be
+   * confirmed is treated as revoked.
+   */
+  private boolean isRevokedInRedis(String tokenId) {
+    try {
+      return Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_KEY_PREFIX + tokenId));
+    } catch (RuntimeException exception) {
+      log.warn("Failed to check revocation of token {}", tokenId, exception);
+      return true;
+    }
+  }
+
+  private void scan(String prefix, Consumer<String> action) {
+    ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+    try (Cursor<String> keys = redisTemplate.scan(options)) {
+      keys.forEachRemaining(action);
+    }
+  }
+}
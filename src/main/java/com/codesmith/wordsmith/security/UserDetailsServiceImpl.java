@@ -5,15 +5,20 @@ import com.codesmith.wordsmith.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 
+/**
+ * Loads users for authentication and stores their password hashes again when Spring Security
+ * rehashes them on login, for instance after the BCrypt cost was recalibrated.
+ */
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
 
@@ -25,9 +30,28 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             .orElseThrow(
                 () -> new UsernameNotFoundException("User not found with username: " + username));
 
-    return new org.springframework.security.core.userdetails.User(
+    return new AuthenticatedUser(
+        user.getId(),
         user.getUsername(),
         user.getPassword(),
         Collections.singleton(new SimpleGrantedAuthority(user.getRole())));
   }
+
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    // Saved through the entity rather than a bulk update, which would clear the whole user cache
+    userRepository
+        .findByUsername(user.getUsername())
+        .ifPresent(
+            storedUser -> {
+              storedUser.setPassword(newPassword);
+              userRepository.save(storedUser);
+            });
+    AuthenticatedUser authenticatedUser = (AuthenticatedUser) user;
+    return new AuthenticatedUser(
+        authenticatedUser.getId(),
+        authenticatedUser.getUsername(),
+        newPassword,
+        authenticatedUser.getAuthorities());
+  }
 }
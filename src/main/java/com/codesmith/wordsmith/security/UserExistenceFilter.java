@@ -0,0 +1,116 @@
+package com.codesmith.wordsmith.security;
+
+import com.codesmith.wordsmith.user.UserChangedEvent;
+import com.codesmith.wordsmith.user.UserIdentity;
+import com.codesmith.wordsmith.user.UserRepository;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory {@link BloomFilter} of the usernames and emails taken by registered users.
+ *
+ * <p>Lets registration skip the database for usernames and emails that are definitely free; only
+ * possible matches need to be checked against it. The filter is built once the application is
+ * ready and kept current through {@link UserChangedEvent}s, from this node and the others. Since
+ * values cannot be removed from a Bloom filter, those of deleted users remain possible matches
+ * until the filter is rebuilt, which happens periodically.
+ *
+ * <p>Until the filter is first built, every value is reported as a possible match.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final long expectedUsers;
+  private final double falsePositiveProbability;
+  private volatile BloomFilter taken;
+  private volatile BloomFilter rebuilt;
+
+  public UserExistenceFilter(
+      UserRepository userRepository,
+      TransactionTemplate transactionTemplate,
+      @Value("${security.user-filter.expected-users:1000000}") long expectedUsers,
+      @Value("${security.user-filter.false-positive-probability:0.01}")
+          double falsePositiveProbability) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.expectedUsers = expectedUsers;
+    this.falsePositiveProbability = falsePositiveProbability;
+  }
+
+  /**
+   * Checks whether a username or an email might be taken.
+   *
+   * @param username the username to check.
+   * @param email the email to check.
+   * @return false if neither is taken, true if either might be.
+   */
+  public boolean mightBeTaken(String username, String email) {
+    BloomFilter filter = taken;
+    return filter == null || filter.mightContain(username) || filter.mightContain(email);
+  }
+
+  /**
+   * Replaces the filter with one built from the users currently stored.
+   *
+   * <p>Users registered while the new filter is being built are added to both filters, so none is
+   * lost when the new filter takes over.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${security.user-filter.rebuild-interval:PT6H}",
+      initialDelayString = "${security.user-filter.rebuild-interval:PT6H}")
+  public void rebuild() {
+    BloomFilter filter = new BloomFilter(expectedUsers * 2, falsePositiveProbability);
+    rebuilt = filter;
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            try (Stream<UserIdentity> users = userRepository.streamAllIdentities()) {
+              users.forEach(
+                  user -> {
+                    filter.put(user.getUsername());
+                    filter.put(user.getEmail());
+                  });
+            }
+          });
+      taken = filter;
+    } catch (RuntimeException exception) {
+      log.warn("Failed to build the filter of registered users", exception);
+    } finally {
+      rebuilt = null;
+    }
+  }
+
+  /**
+   * Records the username and email of a user that was registered or updated.
+   *
+   * @param event the user change event.
+   */
+  @EventListener(condition = "!#event.deleted")
+  public void onUserChanged(UserChangedEvent event) {
+    // Read the filter being rebuilt first: once it is swapped in, taken already is that one
+    BloomFilter filter = rebuilt;
+    add(taken, event);
+    add(filter, event);
+  }
+
+  private static void add(BloomFilter filter, UserChangedEvent event) {
+    if (filter != null) {
+      filter.put(event.username());
+      if (event.email() != null) {
+        filter.put(event.email());
+      }
+    }
+  }
+}
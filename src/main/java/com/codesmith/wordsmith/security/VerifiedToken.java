@@ -0,0 +1,51 @@
+package com.codesmith.wordsmith.security;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable view of the claims of a JWT whose signature has been verified.
+ *
+ * <p>Produced once per token by {@link JwtService#verify(String)} and shared by every check made
+ * on the token afterwards.
+ *
+ * @param id the unique ID ({@code jti}) of the token, or {@code null} for tokens issued without
+ *     one.
+ * @param username the subject of the token.
+ * @param userId the ID of the user, or {@code null} for tokens issued without one.
+ * @param authorities the authorities granted to the user when the token was issued.
+ * @param issuedAt the issue date of the token.
+ * @param expiresAt the expiration date of the token.
+ */
+public record VerifiedToken(
+    String id,
+    String username,
+    Long userId,
+    List<String> authorities,
+    Instant issuedAt,
+    Instant expiresAt) {
+
+  public VerifiedToken {
+    authorities = List.copyOf(authorities);
+  }
+
+  /**
+   * Checks whether the token has expired.
+   *
+   * @return true if the expiration date of the token has passed, false otherwise.
+   */
+  public boolean isExpired() {
+    return expiresAt.isBefore(Instant.now());
+  }
+
+  /**
+   * Restores the principal of the token from its claims, without loading the user.
+   *
+   * @return an {@link AuthenticatedUser} built from the subject, user ID and authorities.
+   */
+  public AuthenticatedUser toPrincipal() {
+    return new AuthenticatedUser(
+        userId, username, "", authorities.stream().map(SimpleGrantedAuthority::new).toList());
+  }
+}
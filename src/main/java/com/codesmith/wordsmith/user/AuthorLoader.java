@@ -0,0 +1,118 @@
+package com.codesmith.wordsmith.user;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch loader of the authors of posts and comments.
+ *
+ * <p>Resolves the distinct authors of a whole page at once: those already known are read from a
+ * short-lived in-memory cache, and all the others are loaded with a single {@code findAllById}.
+ * Concurrent requests needing the same author share the same pending load instead of each
+ * querying for it. Cached authors are dropped as soon as the user changes, on any node. Loads run
+ * on the application task executor, on virtual threads when they are enabled, rather than on the
+ * common fork-join pool, which blocking queries would starve.
+ *
+ * @version 1.0
+ */
+@Component
+public class AuthorLoader {
+
+  private final AsyncLoadingCache<Long, AuthorSummaryDto> authors;
+
+  public AuthorLoader(
+      UserRepository userRepository,
+      UserMapper userMapper,
+      @Value("${author-loader.maximum-size:10000}") long maximumSize,
+      @Value("${author-loader.time-to-live:5m}") Duration timeToLive,
+      @Qualifier("applicationTaskExecutor") Executor executor) {
+    this.authors =
+        Caffeine.newBuilder()
+            .executor(executor)
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .buildAsync(new AuthorCacheLoader(userRepository, userMapper));
+  }
+
+  /**
+   * Attaches the summary of their author to each item of a list.
+   *
+   * @param items the items to complete.
+   * @param userId the function returning the ID of the author of an item.
+   * @param withAuthor the function returning a copy of an item with its author attached.
+   * @param <T> the type of the items.
+   * @return the items with their author, in the same order. Items whose author no longer exists
+   *     are returned unchanged.
+   */
+  public <T> List<T> embed(
+      List<T> items, Function<T, Long> userId, BiFunction<T, AuthorSummaryDto, T> withAuthor) {
+    Set<Long> userIds =
+        items.stream()
+            .map(userId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    if (userIds.isEmpty()) {
+      return items;
+    }
+    Map<Long, AuthorSummaryDto> found = authors.getAll(userIds).join();
+    return items.stream()
+        .map(
+            item -> {
+              AuthorSummaryDto author = found.get(userId.apply(item));
+              return author == null ? item : withAuthor.apply(item, author);
+            })
+        .toList();
+  }
+
+  /**
+   * Loads the summaries of users not cached yet, all at once.
+   *
+   * @param userIds the IDs of the users.
+   */
+  public void preload(Collection<Long> userIds) {
+    authors.getAll(userIds).join();
+  }
+
+  /**
+   * Drops the cached summary of a user that was updated or deleted.
+   *
+   * @param event the user change event.
+   */
+  @EventListener
+  public void onUserChanged(UserChangedEvent event) {
+    authors.synchronous().invalidate(event.userId());
+  }
+
+  /** Loads missing authors, all at once when several are missing. */
+  private record AuthorCacheLoader(UserRepository userRepository, UserMapper userMapper)
+      implements CacheLoader<Long, AuthorSummaryDto> {
+
+    @Override
+    public AuthorSummaryDto load(@NonNull Long userId) {
+      return userRepository.findById(userId).map(userMapper::toAuthorSummary).orElse(null);
+    }
+
+    @Override
+    public Map<Long, AuthorSummaryDto> loadAll(@NonNull Set<? extends Long> userIds) {
+      return userRepository.findAllById(Set.copyOf(userIds)).stream()
+          .collect(Collectors.toMap(User::getId, userMapper::toAuthorSummary));
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.codesmith.wordsmith.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthorSummaryDto(Long id, String username, String firstName, String lastName)
+    implements Serializable {}
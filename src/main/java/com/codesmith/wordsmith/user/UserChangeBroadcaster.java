@@ -0,0 +1,109 @@
+package com.codesmith.wordsmith.user;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relays {@link UserChangedEvent}s to the other application nodes over Redis pub/sub.
+ *
+ * <p>Local events are published on the {@value #CHANNEL} channel. Messages received from other
+ * nodes are republished as local events with {@code remote} set, so listeners handle every change
+ * the same way regardless of where it happened.
+ *
+ * <p>Before a remote change is republished, the user is evicted from the Hibernate second-level
+ * cache, which each node keeps on its own heap. Listeners reloading the user, such as the {@code
+ * PrincipalCache}, would otherwise get the stale entity back until it expires.
+ *
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class UserChangeBroadcaster implements MessageListener {
+
+  static final String CHANNEL = "user-changes";
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final EntityManagerFactory entityManagerFactory;
+
+  public UserChangeBroadcaster(
+      StringRedisTemplate redisTemplate,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher,
+      EntityManagerFactory entityManagerFactory,
+      RedisMessageListenerContainer listenerContainer) {
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.entityManagerFactory = entityManagerFactory;
+    listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+  }
+
+  /**
+   * Publishes a change made on this node to the other nodes.
+   *
+   * @param event the local change event.
+   */
+  @EventListener(condition = "!#event.remote")
+  public void onUserChanged(UserChangedEvent event) {
+    try {
+      String payload =
+          objectMapper.writeValueAsString(
+              new UserChangeMessage(
+                  nodeId, event.userId(), event.username(), event.email(), event.deleted()));
+      redisTemplate.convertAndSend(CHANNEL, payload);
+    } catch (JsonProcessingException | RuntimeException exception) {
+      log.warn("Failed to broadcast change of user {}", event.username(), exception);
+    }
+  }
+
+  /**
+   * Republishes a change received from another node as a local event.
+   *
+   * @param message the received pub/sub message.
+   * @param pattern the matched channel pattern, unused.
+   */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    try {
+      UserChangeMessage change = objectMapper.readValue(message.getBody(), UserChangeMessage.class);
+      if (!nodeId.equals(change.origin())) {
+        evictEntity(change.userId());
+        eventPublisher.publishEvent(
+            new UserChangedEvent(
+                change.userId(), change.username(), change.email(), change.deleted(), true));
+      }
+    } catch (IOException exception) {
+      log.warn("Ignoring malformed user change message", exception);
+    }
+  }
+
+  private void evictEntity(Long userId) {
+    org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    if (userId == null) {
+      cache.evictEntityData(User.class);
+    } else {
+      cache.evictEntityData(User.class, userId);
+    }
+    // Natural IDs are mapped to user IDs, not evictable one by one from the event
+    cache.evictNaturalIdData(User.class);
+  }
+
+  private record UserChangeMessage(
+      String origin, Long userId, String username, String email, boolean deleted) {}
+}
@@ -0,0 +1,31 @@
+package com.codesmith.wordsmith.user;
+
+/**
+ * Application event published whenever a user is registered, updated or deleted.
+ *
+ * <p>Listeners use it to drop any state derived from the user, such as cached principals, or to
+ * track which usernames and emails are taken. Events raised on this node are relayed to the other
+ * nodes by {@link UserChangeBroadcaster}, which republishes them locally with {@code remote} set to
+ * {@code true}.
+ *
+ * @param userId the ID of the changed user.
+ * @param username the username of the changed user.
+ * @param email the email of the changed user.
+ * @param deleted whether the user was deleted.
+ * @param remote whether the change originated on another node.
+ */
+public record UserChangedEvent(
+    Long userId, String username, String email, boolean deleted, boolean remote) {
+
+  public static UserChangedEvent created(User user) {
+    return new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail(), false, false);
+  }
+
+  static UserChangedEvent updated(User user) {
+    return new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail(), false, false);
+  }
+
+  static UserChangedEvent deleted(User user) {
+    return new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail(), true, false);
+  }
+}
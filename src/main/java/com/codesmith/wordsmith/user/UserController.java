@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -44,6 +45,18 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    /**
+     * Retrieves the users with the given IDs.
+     *
+     * @param ids the IDs of the users to retrieve.
+     * @return a List of {@link UserResponseDto} of the users found, in the order of the IDs.
+     */
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserResponseDto> getUsersByIds(@RequestParam final List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+
     /**
      * Retrieves a user by their ID.
      *
@@ -0,0 +1,9 @@
+package com.codesmith.wordsmith.user;
+
+/** Projection of the unique identifiers of a user. */
+public interface UserIdentity {
+
+  String getUsername();
+
+  String getEmail();
+}
@@ -43,6 +43,17 @@ public class UserMapper {
         user.getBio());
   }
 
+  /**
+   * Converts a UserEntity to the summary shown as the author of posts and comments.
+   *
+   * @param user the UserEntity to be converted.
+   * @return an {@link AuthorSummaryDto} holding the public name of the user.
+   */
+  public AuthorSummaryDto toAuthorSummary(User user) {
+    return new AuthorSummaryDto(
+        user.getId(), user.getUsername(), user.getFirstName(), user.getLastName());
+  }
+
   /**
    * Converts a UserRequestDto to a UserEntity.
    *
@@ -0,0 +1,14 @@
+package com.codesmith.wordsmith.user;
+
+import java.util.Optional;
+
+/**
+ * Lookups of users by their natural ID, the username.
+ *
+ * <p>Unlike a derived query, these go through the second-level cache: the natural ID cache maps
+ * the username to the ID, and the entity cache holds the user.
+ */
+public interface UserNaturalIdRepository {
+
+  Optional<User> findByUsername(String username);
+}
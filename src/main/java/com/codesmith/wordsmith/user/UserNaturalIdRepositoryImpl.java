@@ -0,0 +1,19 @@
+package com.codesmith.wordsmith.user;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Implementation of {@link UserNaturalIdRepository} on the Hibernate session. */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<User> findByUsername(String username) {
+    return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+  }
+}
@@ -1,14 +1,41 @@
 package com.codesmith.wordsmith.user;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
   Optional<User> findByEmail(String email);
 
-  Optional<User> findByUsername(String username);
+  /**
+   * Finds the users holding a username or an email, without loading them.
+   *
+   * @param username the username to look for.
+   * @param email the email to look for.
+   * @return the usernames of the matching users, at most two.
+   */
+  @Query("select u.username from User u where u.username = :username or u.email = :email")
+  List<String> findUsernamesByUsernameOrEmail(
+      @Param("username") String username, @Param("email") String email);
+
+  /**
+   * Streams the username and email of every user, fetching rows from the database in batches
+   * rather than all at once.
+   *
+   * @return the identities of the users, to be consumed within a transaction and closed.
+   */
+  @Query("select u.username as username, u.email as email from User u")
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+  Stream<UserIdentity> streamAllIdentities();
 }
@@ -2,6 +2,7 @@ package com.codesmith.wordsmith.user;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -19,4 +20,4 @@ public record UserResponseDto(
     String zipCode,
     String country,
     String role,
-    String bio) {}
+    String bio) implements Serializable {}
@@ -1,27 +1,38 @@
 package com.codesmith.wordsmith.user;
 
+import com.codesmith.wordsmith.cache.CacheLoader;
+import com.codesmith.wordsmith.cache.MultiGetCache;
 import com.codesmith.wordsmith.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
  * Service class for managing user-related operations.
  *
  * <p>This class provides methods for retrieving, updating, and deleting user information
- * by interacting with the UserRepository and mapping user entities to DTOs using UserMapper.</p>
+ * by interacting with the UserRepository and mapping user entities to DTOs using UserMapper.
+ * It is also the {@link CacheLoader} of the user cache.</p>
  *
  * @version 1.0
  */
 @Service
+@Timed("service.invocations")
 @RequiredArgsConstructor
-public class UserService {
+public class UserService implements CacheLoader<Long, UserResponseDto> {
 
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MultiGetCache multiGetCache;
 
     /**
      * Retrieves all users from the database.
@@ -40,21 +51,62 @@ public class UserService {
     /**
      * Retrieves a user by their ID.
      *
+     * <p>Concurrent misses of the same user are loaded once, see
+     * {@link com.codesmith.wordsmith.cache.SingleFlightCache}.</p>
+     *
      * @param userId the ID of the user to be retrieved.
      * @return a {@link UserResponseDto} containing the user's information.
      * @throws ResourceNotFoundException if a user with the specified ID does not exist.
      */
-    @Cacheable(value = "users", key = "#userId")
+    @Cacheable(value = "users", key = "#userId", sync = true)
     UserResponseDto getUserById(Long userId) {
+        return load(userId);
+    }
+
+    @Override
+    public String cacheName() {
+        return "users";
+    }
+
+    /**
+     * Loads a user from the database, bypassing the cache.
+     *
+     * @param userId the ID of the user to load.
+     * @return a {@link UserResponseDto} containing the user's information.
+     * @throws ResourceNotFoundException if a user with the specified ID does not exist.
+     */
+    @Override
+    public UserResponseDto load(Long userId) {
         User user = userRepository
                 .findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         return userMapper.toDto(user);
     }
 
+    /**
+     * Retrieves users by their IDs.
+     *
+     * <p>The users are read from the cache in one round trip, and those missing are loaded with a
+     * single query and cached.</p>
+     *
+     * @param userIds the IDs of the users to be retrieved.
+     * @return a list of {@link UserResponseDto} of the users found, in the order of their IDs.
+     * @throws IllegalArgumentException if too many IDs are requested.
+     */
+    public List<UserResponseDto> getUsersByIds(List<Long> userIds) {
+        return multiGetCache.getAll("users", userIds, missing -> userRepository
+                .findAllById(missing)
+                .stream()
+                .map(userMapper::toDto)
+                .collect(Collectors.toMap(UserResponseDto::id, Function.identity())));
+    }
+
     /**
      * Updates the information of an existing user.
      *
+     * <p>Publishes a {@link UserChangedEvent} so that state derived from the user, such as cached
+     * principals, is dropped on every node.</p>
+     *
      * @param userId         the ID of the user to be updated.
      * @param userRequestDto the DTO containing the updated user information.
      * @return a {@link UserResponseDto} containing the updated user's information.
@@ -77,17 +129,35 @@ public class UserService {
         user.setCountry(userRequestDto.country());
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(savedUser));
         return userMapper.toDto(savedUser);
     }
 
     /**
      * Deletes a user by their ID.
      *
+     * <p>Publishes a {@link UserChangedEvent} so that state derived from the user, such as cached
+     * principals, is dropped on every node.</p>
+     *
      * @param userId the ID of the user to be deleted.
      */
     @CacheEvict(value = "users", key = "#userId")
     void deleteUser(Long userId) {
-        userRepository.deleteById(userId);
+        userRepository.findById(userId).ifPresent(user -> {
+            userRepository.delete(user);
+            eventPublisher.publishEvent(UserChangedEvent.deleted(user));
+        });
     }
-}
 
+    /**
+     * Drops the cached user when a user changes on this node, in particular when it is registered,
+     * so that a lookup of its ID made before it existed, cached as not found, does not hide it.
+     *
+     * @param event the user change event.
+     */
+    @EventListener(condition = "!#event.remote")
+    @CacheEvict(value = "users", key = "#event.userId")
+    public void onUserChanged(UserChangedEvent event) {
+        // The eviction is done by the annotation
+    }
+}
@@ -1,10 +1,17 @@
 package com.codesmith.wordsmith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.springframework.boot.SpringApplication;
 
 public class TestApplication {
 
   public static void main(String[] args) {
-    SpringApplication.from(Application::main).with(TestContainersConfiguration.class).run(args);
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    arguments.add(0, "--spring.profiles.include=test");
+    SpringApplication.from(Application::main)
+        .with(TestContainersConfiguration.class)
+        .run(arguments.toArray(String[]::new));
   }
 }
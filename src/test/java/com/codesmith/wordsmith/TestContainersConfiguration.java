@@ -12,7 +12,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
 @TestConfiguration(proxyBeanMethods = false)
-class TestContainersConfiguration {
+public class TestContainersConfiguration {
 
   @Bean
   @ServiceConnection
@@ -0,0 +1,65 @@
+package com.codesmith.wordsmith.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+
+class CacheAccessEventTest {
+
+  @Test
+  void creditsBytesToTheCallInProgress() {
+    try (Recording recording = record()) {
+      CacheAccessEvent outer = CacheAccessEvent.start("post", "get", 1L);
+      CacheAccessEvent.transferred(10);
+      CacheAccessEvent inner = CacheAccessEvent.start("users", "get", 2L);
+      CacheAccessEvent.transferred(20);
+      inner.finish();
+      CacheAccessEvent.transferred(30);
+      outer.finish();
+      CacheAccessEvent.transferred(40);
+
+      assertThat(outer.bytes).isEqualTo(40);
+      assertThat(inner.bytes).isEqualTo(20);
+    }
+  }
+
+  @Test
+  void releasesTheThreadWhenTheRecordingStopsDuringTheCall() {
+    CacheAccessEvent event;
+    try (Recording recording = record()) {
+      event = CacheAccessEvent.start("post", "get", 1L);
+    }
+
+    event.finish();
+    CacheAccessEvent.transferred(10);
+
+    assertThat(event.bytes).isZero();
+  }
+
+  @Test
+  void resumesTheOuterCallWhenARecordingStartsDuringTheCall() {
+    CacheAccessEvent outer;
+    CacheAccessEvent inner;
+    try (Recording recording = record()) {
+      outer = CacheAccessEvent.start("post", "get", 1L);
+    }
+    // Not recorded, so not the current call of the thread
+    inner = CacheAccessEvent.start("users", "get", 2L);
+    try (Recording recording = record()) {
+      inner.finish();
+      CacheAccessEvent.transferred(10);
+      outer.finish();
+    }
+
+    assertThat(outer.bytes).isEqualTo(10);
+    assertThat(inner.bytes).isZero();
+  }
+
+  private static Recording record() {
+    Recording recording = new Recording();
+    recording.enable(CacheAccessEvent.class);
+    recording.start();
+    return recording;
+  }
+}
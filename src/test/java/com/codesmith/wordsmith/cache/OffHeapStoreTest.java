@@ -0,0 +1,194 @@
+package com.codesmith.wordsmith.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStoreTest {
+
+  private static final long NOW = 1_000L;
+  private static final long NEVER = Long.MAX_VALUE;
+
+  /** Header of 24 bytes, key "key-00" and a value of 70 bytes: ten entries fill 1000 bytes. */
+  private static final int ENTRY_SIZE = 100;
+
+  @Test
+  void readsWhatWasStored() {
+    OffHeapStore store = new OffHeapStore(4096, 1);
+
+    assertThat(put(store, "a", "first")).isTrue();
+    assertThat(put(store, "b", "second")).isTrue();
+
+    assertThat(get(store, "a")).isEqualTo("first");
+    assertThat(get(store, "b")).isEqualTo("second");
+    assertThat(get(store, "c")).isNull();
+    assertThat(store.size()).isEqualTo(2);
+  }
+
+  @Test
+  void replacesTheValueOfAKey() {
+    OffHeapStore store = new OffHeapStore(4096, 1);
+
+    put(store, "a", "first");
+    put(store, "a", "second");
+
+    assertThat(get(store, "a")).isEqualTo("second");
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  @Test
+  void removesAKeyAndKeepsTheOthersReachable() {
+    OffHeapStore store = new OffHeapStore(1 << 20, 1);
+    for (int i = 0; i < 500; i++) {
+      put(store, "key-" + i, "value-" + i);
+    }
+
+    for (int i = 0; i < 500; i += 2) {
+      store.remove(key("key-" + i));
+    }
+
+    for (int i = 0; i < 500; i++) {
+      assertThat(get(store, "key-" + i)).isEqualTo(i % 2 == 0 ? null : "value-" + i);
+    }
+    assertThat(store.size()).isEqualTo(250);
+  }
+
+  @Test
+  void ignoresExpiredEntries() {
+    OffHeapStore store = new OffHeapStore(4096, 1);
+
+    store.put(key("a"), value("first"), 5, NOW + 10);
+
+    assertThat(store.get(key("a"), NOW + 9, OffHeapStoreTest::read)).isEqualTo("first");
+    assertThat(store.get(key("a"), NOW + 10, OffHeapStoreTest::read)).isNull();
+  }
+
+  @Test
+  void evictsTheOldestEntriesWhenFull() {
+    OffHeapStore store = new OffHeapStore(10 * ENTRY_SIZE, 1);
+
+    for (int i = 0; i < 25; i++) {
+      assertThat(put(store, entryKey(i), entryValue(i))).isTrue();
+    }
+
+    for (int i = 0; i < 15; i++) {
+      assertThat(get(store, entryKey(i))).isNull();
+    }
+    for (int i = 15; i < 25; i++) {
+      assertThat(get(store, entryKey(i))).isEqualTo(entryValue(i));
+    }
+    assertThat(store.size() + store.evictions()).isEqualTo(25);
+  }
+
+  @Test
+  void wrapsAroundWithEntriesOfDifferentSizes() {
+    OffHeapStore store = new OffHeapStore(1000, 1);
+
+    for (int i = 0; i < 200; i++) {
+      put(store, "key-" + i, "x".repeat(i % 37) + i);
+      assertThat(get(store, "key-" + i)).isEqualTo("x".repeat(i % 37) + i);
+    }
+
+    // Whatever survived the evictions must read back intact
+    int live = 0;
+    for (int i = 0; i < 200; i++) {
+      String value = get(store, "key-" + i);
+      if (value != null) {
+        assertThat(value).isEqualTo("x".repeat(i % 37) + i);
+        live++;
+      }
+    }
+    assertThat(live).isPositive().isEqualTo(store.size());
+    assertThat(store.size() + store.evictions()).isEqualTo(200);
+  }
+
+  @Test
+  void replacedEntriesAreNotCountedAsEvicted() {
+    OffHeapStore store = new OffHeapStore(10 * ENTRY_SIZE, 1);
+
+    for (int i = 0; i < 50; i++) {
+      put(store, entryKey(0), entryValue(i));
+    }
+
+    assertThat(get(store, entryKey(0))).isEqualTo(entryValue(49));
+    assertThat(store.size()).isEqualTo(1);
+    assertThat(store.evictions()).isZero();
+  }
+
+  @Test
+  void growsTheIndexOfASegment() {
+    OffHeapStore store = new OffHeapStore(1 << 20, 1);
+
+    for (int i = 0; i < 5000; i++) {
+      put(store, "key-" + i, "value-" + i);
+    }
+
+    for (int i = 0; i < 5000; i++) {
+      assertThat(get(store, "key-" + i)).isEqualTo("value-" + i);
+    }
+    assertThat(store.size()).isEqualTo(5000);
+    assertThat(store.evictions()).isZero();
+  }
+
+  @Test
+  void refusesEntriesLargerThanASegment() {
+    OffHeapStore store = new OffHeapStore(10 * ENTRY_SIZE, 1);
+
+    assertThat(put(store, "a", "x".repeat(10 * ENTRY_SIZE))).isFalse();
+    assertThat(get(store, "a")).isNull();
+  }
+
+  @Test
+  void clearsEverySegment() {
+    OffHeapStore store = new OffHeapStore(1 << 16, 4);
+    for (int i = 0; i < 100; i++) {
+      put(store, "key-" + i, "value-" + i);
+    }
+
+    store.clear();
+
+    assertThat(store.size()).isZero();
+    assertThat(get(store, "key-1")).isNull();
+    put(store, "key-1", "again");
+    assertThat(get(store, "key-1")).isEqualTo("again");
+  }
+
+  @Test
+  void rejectsSegmentsSmallerThanAnEntryHeader() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new OffHeapStore(64, 4));
+  }
+
+  private static String entryKey(int i) {
+    return String.format("key-%02d", i);
+  }
+
+  private static String entryValue(int i) {
+    return String.format("%070d", i);
+  }
+
+  private static boolean put(OffHeapStore store, String key, String value) {
+    byte[] bytes = value(value);
+    return store.put(key(key), bytes, bytes.length, NEVER);
+  }
+
+  private static String get(OffHeapStore store, String key) {
+    return store.get(key(key), NOW, OffHeapStoreTest::read);
+  }
+
+  private static byte[] key(String key) {
+    return key.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] value(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String read(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,180 @@
+package com.codesmith.wordsmith.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RedisCircuitBreakerTest {
+
+  private static final int FAILURE_THRESHOLD = 3;
+  private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void callsRedisWhileClosed() {
+    RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(1));
+
+    assertThat(circuitBreaker.execute(succeeding(), () -> "fallback")).isEqualTo("redis");
+
+    assertThat(calls).hasValue(1);
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    assertThat(circuitBreaker.isCallPermitted()).isTrue();
+  }
+
+  @Test
+  void opensAfterConsecutiveFailures() {
+    RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(1));
+
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      assertThat(circuitBreaker.execute(failing(), () -> "fallback")).isEqualTo("fallback");
+    }
+
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(FAILURE_THRESHOLD);
+    assertThat(circuitBreaker.isCallPermitted()).isFalse();
+
+    // Open: Redis is not called at all
+    assertThat(circuitBreaker.execute(succeeding(), () -> "fallback")).isEqualTo("fallback");
+    assertThat(calls).hasValue(FAILURE_THRESHOLD);
+    assertThat(meterRegistry.get("cache.circuit.rejected").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void staysClosedWhenFailuresAreNotConsecutive() {
+    RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(1));
+
+    for (int i = 0; i < FAILURE_THRESHOLD * 3; i++) {
+      circuitBreaker.execute(i % FAILURE_THRESHOLD == 0 ? succeeding() : failing(), () -> null);
+    }
+
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void countsSlowCallsAsFailures() {
+    RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMillis(1));
+    Supplier<String> slow =
+        () -> {
+          calls.incrementAndGet();
+          sleep(5);
+          return "redis";
+        };
+
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      // The result of a slow call is still returned
+      assertThat(circuitBreaker.execute(slow, () -> "fallback")).isEqualTo("redis");
+    }
+
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void letsASingleTrialThroughOnceTheOpenDurationHasPassed() throws Exception {
+    RedisCircuitBreaker circuitBreaker = open();
+    sleep(OPEN_DURATION.toMillis() * 2);
+    assertThat(circuitBreaker.isCallPermitted()).isTrue();
+
+    CountDownLatch trialStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> trial =
+        executor.submit(
+            () ->
+                circuitBreaker.execute(
+                    () -> {
+                      trialStarted.countDown();
+                      await(release);
+                      return "redis";
+                    },
+                    () -> "fallback"));
+    assertThat(trialStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // Half-open: every other call falls back while the trial is running
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+    assertThat(circuitBreaker.isCallPermitted()).isFalse();
+    assertThat(circuitBreaker.execute(succeeding(), () -> "fallback")).isEqualTo("fallback");
+    assertThat(calls).hasValue(FAILURE_THRESHOLD);
+
+    release.countDown();
+    assertThat(trial.get(5, TimeUnit.SECONDS)).isEqualTo("redis");
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    assertThat(circuitBreaker.getConsecutiveFailures()).isZero();
+    assertThat(circuitBreaker.execute(succeeding(), () -> "fallback")).isEqualTo("redis");
+  }
+
+  @Test
+  void opensAgainWhenTheTrialFails() {
+    RedisCircuitBreaker circuitBreaker = open();
+    sleep(OPEN_DURATION.toMillis() * 2);
+
+    assertThat(circuitBreaker.execute(failing(), () -> "fallback")).isEqualTo("fallback");
+
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    assertThat(circuitBreaker.isCallPermitted()).isFalse();
+    assertThat(
+            meterRegistry.get("cache.circuit.transitions").tag("state", "open").counter().count())
+        .isEqualTo(2);
+  }
+
+  private RedisCircuitBreaker circuitBreaker(Duration slowCallThreshold) {
+    return new RedisCircuitBreaker(
+        meterRegistry, FAILURE_THRESHOLD, slowCallThreshold, OPEN_DURATION);
+  }
+
+  private RedisCircuitBreaker open() {
+    RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(1));
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      circuitBreaker.execute(failing(), () -> null);
+    }
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    return circuitBreaker;
+  }
+
+  private Supplier<String> succeeding() {
+    return () -> {
+      calls.incrementAndGet();
+      return "redis";
+    };
+  }
+
+  private Supplier<String> failing() {
+    return () -> {
+      calls.incrementAndGet();
+      throw new IllegalStateException("Redis unavailable");
+    };
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
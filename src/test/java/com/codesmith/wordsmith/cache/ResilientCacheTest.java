@@ -0,0 +1,245 @@
+package com.codesmith.wordsmith.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class ResilientCacheTest {
+
+  private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+  private final RedisCircuitBreaker circuitBreaker =
+      new RedisCircuitBreaker(new SimpleMeterRegistry(), 1, Duration.ofMinutes(1), OPEN_DURATION);
+  private final FlakyCache delegate = new FlakyCache();
+  private final List<List<Object>> evictions = new ArrayList<>();
+  private final List<Runnable> reconciliations = new ArrayList<>();
+
+  @Test
+  void callsRedisWhileItIsUp() {
+    ResilientCache cache = cache(100);
+
+    cache.put(1L, "value");
+
+    assertThat(delegate.get(1L).get()).isEqualTo("value");
+    assertThat(cache.get(1L).get()).isEqualTo("value");
+    cache.evict(1L);
+    assertThat(delegate.get(1L)).isNull();
+    assertThat(reconciliations).isEmpty();
+  }
+
+  @Test
+  void fallsBackToTheLocalCacheWhileRedisIsDown() {
+    ResilientCache cache = cache(100);
+    delegate.down.set(true);
+
+    cache.put(1L, "value");
+    cache.put(2L, null);
+
+    assertThat(cache.get(1L).get()).isEqualTo("value");
+    assertThat(cache.get(2L)).isNotNull();
+    assertThat(cache.get(2L).get()).isNull();
+    assertThat(cache.get(3L)).isNull();
+    assertThat(cache.get(3L, () -> "loaded")).isEqualTo("loaded");
+    assertThat(cache.get(3L).get()).isEqualTo("loaded");
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void keepsServingTheLocalCacheUntilRedisIsReconciled() {
+    ResilientCache cache = cache(100);
+    cache.put(1L, "before");
+    cache.put(2L, "untouched");
+    delegate.down.set(true);
+    cache.put(1L, "during");
+    cache.evict(3L);
+
+    delegate.down.set(false);
+    sleep(OPEN_DURATION.toMillis() * 2);
+
+    // Redis is back but still holds the value written before the outage
+    assertThat(cache.get(1L).get()).isEqualTo("during");
+    assertThat(cache.get(2L)).isNull();
+    assertThat(delegate.get(1L).get()).isEqualTo("before");
+    assertThat(reconciliations).hasSize(1);
+
+    reconcile();
+
+    assertThat(evictions).containsExactly(List.of(1L, 3L));
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    assertThat(cache.get(1L)).isNull();
+    assertThat(cache.get(2L).get()).isEqualTo("untouched");
+  }
+
+  @Test
+  void reconcilesOnceAtATime() {
+    ResilientCache cache = cache(100);
+    delegate.down.set(true);
+    cache.put(1L, "value");
+    delegate.down.set(false);
+    sleep(OPEN_DURATION.toMillis() * 2);
+
+    for (int i = 0; i < 10; i++) {
+      cache.get(1L);
+    }
+
+    assertThat(reconciliations).hasSize(1);
+    assertThat(delegate.calls).hasValue(1);
+  }
+
+  @Test
+  void evictsTheKeysWrittenDuringTheReconciliation() {
+    AtomicBoolean first = new AtomicBoolean(true);
+    AtomicReference<ResilientCache> self = new AtomicReference<>();
+    ResilientCache cache =
+        cache(
+            100,
+            keys -> {
+              if (first.getAndSet(false)) {
+                // Still degraded: written to the local cache and marked dirty
+                self.get().put(2L, "during-reconciliation");
+              }
+              evict(keys);
+            });
+    self.set(cache);
+    cache.put(2L, "before");
+    delegate.down.set(true);
+    cache.put(1L, "during");
+    delegate.down.set(false);
+    sleep(OPEN_DURATION.toMillis() * 2);
+
+    cache.get(1L);
+    reconcile();
+
+    assertThat(evictions).containsExactly(List.of(1L), List.of(2L));
+    assertThat(delegate.get(2L)).isNull();
+  }
+
+  @Test
+  void clearsRedisWhenTooManyKeysWereWritten() {
+    ResilientCache cache = cache(2);
+    cache.put(1L, "before");
+    delegate.down.set(true);
+    for (long key = 10; key < 13; key++) {
+      cache.put(key, "during");
+    }
+    delegate.down.set(false);
+    sleep(OPEN_DURATION.toMillis() * 2);
+
+    cache.get(1L);
+    reconcile();
+
+    assertThat(evictions).isEmpty();
+    assertThat(delegate.getNativeCache()).isEmpty();
+  }
+
+  @Test
+  void staysDegradedWhenTheReconciliationFails() {
+    ResilientCache cache = cache(100);
+    cache.put(1L, "before");
+    delegate.down.set(true);
+    cache.put(1L, "during");
+    sleep(OPEN_DURATION.toMillis() * 2);
+
+    // The reconciliation is the trial call of the half-open circuit, and fails
+    cache.get(1L);
+    reconcile();
+
+    assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    assertThat(cache.get(1L).get()).isEqualTo("during");
+
+    delegate.down.set(false);
+    sleep(OPEN_DURATION.toMillis() * 2);
+    cache.get(1L);
+    reconcile();
+
+    assertThat(evictions).containsExactly(List.of(1L));
+    assertThat(cache.get(1L)).isNull();
+  }
+
+  private ResilientCache cache(long maximumSize) {
+    return cache(maximumSize, this::evict);
+  }
+
+  private ResilientCache cache(long maximumSize, Consumer<Collection<Object>> evictAll) {
+    return new ResilientCache(
+        delegate,
+        circuitBreaker,
+        maximumSize,
+        Duration.ofMinutes(1),
+        evictAll,
+        reconciliations::add);
+  }
+
+  private void evict(Collection<Object> keys) {
+    List<Object> batch = List.copyOf(keys);
+    batch.forEach(delegate::evict);
+    evictions.add(batch.stream().sorted().toList());
+  }
+
+  /** Runs the reconciliations scheduled so far. */
+  private void reconcile() {
+    List<Runnable> scheduled = List.copyOf(reconciliations);
+    reconciliations.clear();
+    scheduled.forEach(Runnable::run);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Stands in for the Redis cache, failing every call while it is down. */
+  private static class FlakyCache extends ConcurrentMapCache {
+
+    final AtomicBoolean down = new AtomicBoolean();
+    final AtomicInteger calls = new AtomicInteger();
+
+    FlakyCache() {
+      super("post");
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+      check();
+      return super.get(key);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+      check();
+      super.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+      check();
+      super.evict(key);
+    }
+
+    @Override
+    public void clear() {
+      check();
+      super.clear();
+    }
+
+    private void check() {
+      calls.incrementAndGet();
+      if (down.get()) {
+        throw new IllegalStateException("Redis unavailable");
+      }
+    }
+  }
+}
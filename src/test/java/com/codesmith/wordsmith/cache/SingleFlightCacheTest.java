@@ -0,0 +1,324 @@
+package com.codesmith.wordsmith.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codesmith.wordsmith.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+class SingleFlightCacheTest {
+
+  private static final int CALLERS = 8;
+  private static final long KEY = 1L;
+  private static final String LEASE_KEY = "cache-lease:post::1";
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RedisCircuitBreaker circuitBreaker =
+      new RedisCircuitBreaker(meterRegistry, 5, Duration.ofMinutes(1), Duration.ofSeconds(10));
+  private final Cache delegate = new ConcurrentMapCache("post");
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+  private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+  private StringRedisTemplate redisTemplate;
+  private ValueOperations<String, String> valueOperations;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    refreshExecutor.shutdownNow();
+  }
+
+  @Test
+  void coalescesConcurrentMisses() throws Exception {
+    SingleFlightCache cache = cache(null, null);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    Callable<String> loader =
+        () -> {
+          loads.incrementAndGet();
+          release.await();
+          return "value";
+        };
+
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(executor.submit(() -> cache.get(KEY, loader)));
+    }
+    awaitCoalesced(CALLERS - 1);
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(cached(delegate)).isEqualTo("value");
+  }
+
+  @Test
+  void rethrowsAFailedLoadToCoalescedWaiters() throws Exception {
+    SingleFlightCache cache = cache(null, null);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    Callable<String> loader =
+        () -> {
+          loads.incrementAndGet();
+          release.await();
+          throw new IllegalStateException("Database unavailable");
+        };
+
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(executor.submit(() -> cache.get(KEY, loader)));
+    }
+    awaitCoalesced(CALLERS - 1);
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+          .isInstanceOf(ExecutionException.class)
+          .cause()
+          .isInstanceOf(Cache.ValueRetrievalException.class)
+          .rootCause()
+          .hasMessage("Database unavailable");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(delegate.get(KEY)).isNull();
+
+    // The failure is not cached: the next caller loads again
+    assertThat(cache.get(KEY, () -> "value")).isEqualTo("value");
+  }
+
+  @Test
+  void cachesKeysNotFound() {
+    SingleFlightCache cache = cache(null, null);
+    AtomicInteger loads = new AtomicInteger();
+    Callable<String> loader =
+        () -> {
+          loads.incrementAndGet();
+          throw new ResourceNotFoundException("Post not found with id: 1");
+        };
+
+    assertThatThrownBy(() -> cache.get(KEY, loader))
+        .isInstanceOf(Cache.ValueRetrievalException.class)
+        .rootCause()
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThatThrownBy(() -> cache.get(KEY, loader))
+        .isInstanceOf(ResourceNotFoundException.class)
+        .hasMessage("Post not found with id: 1");
+
+    assertThat(loads).hasValue(1);
+    assertThat(cache.get(KEY)).isNull();
+  }
+
+  @Test
+  void loadsUnderTheLeaseAndReleasesIt() {
+    SingleFlightCache cache = cache(lease(Duration.ofSeconds(1)), null);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(true);
+
+    assertThat(cache.get(KEY, () -> "value")).isEqualTo("value");
+
+    ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+    verify(valueOperations).setIfAbsent(eq(LEASE_KEY), token.capture(), eq(Duration.ofSeconds(5)));
+    verify(redisTemplate)
+        .execute(any(RedisScript.class), eq(List.of(LEASE_KEY)), eq(token.getValue()));
+    assertThat(cached(delegate)).isEqualTo("value");
+  }
+
+  @Test
+  void releasesTheLeaseWhenTheLoadFails() {
+    SingleFlightCache cache = cache(lease(Duration.ofSeconds(1)), null);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(true);
+
+    assertThatThrownBy(
+            () ->
+                cache.get(
+                    KEY,
+                    () -> {
+                      throw new IllegalStateException("Database unavailable");
+                    }))
+        .isInstanceOf(Cache.ValueRetrievalException.class);
+
+    verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LEASE_KEY)), anyString());
+  }
+
+  @Test
+  void waitsForTheNodeHoldingTheLease() throws Exception {
+    SingleFlightCache cache = cache(lease(Duration.ofSeconds(5)), null);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    AtomicInteger loads = new AtomicInteger();
+
+    Future<String> result =
+        executor.submit(
+            () ->
+                cache.get(
+                    KEY,
+                    () -> {
+                      loads.incrementAndGet();
+                      return "local";
+                    }));
+    // The holder of the lease fills the cache meanwhile
+    Thread.sleep(100);
+    delegate.put(KEY, "remote");
+
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("remote");
+    assertThat(loads).hasValue(0);
+    verify(redisTemplate, never()).execute(any(RedisScript.class), any(List.class), any());
+  }
+
+  @Test
+  void loadsOnceTheLeaseWaitRunsOut() {
+    SingleFlightCache cache = cache(lease(Duration.ofMillis(50)), null);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    assertThat(cache.get(KEY, () -> "local")).isEqualTo("local");
+    assertThat(cached(delegate)).isEqualTo("local");
+  }
+
+  @Test
+  void loadsWhenRedisFailsToGrantTheLease() {
+    SingleFlightCache cache = cache(lease(Duration.ofSeconds(5)), null);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenThrow(new IllegalStateException("Redis unavailable"));
+
+    assertThat(cache.get(KEY, () -> "value")).isEqualTo("value");
+  }
+
+  @Test
+  void refreshesAStaleEntryInTheBackground() throws Exception {
+    CountDownLatch loaded = new CountDownLatch(1);
+    SingleFlightCache cache = cache(null, refresh(key -> loadedAfter(loaded, "fresh")));
+    delegate.put(KEY, new CacheEntry("stale", 0, System.currentTimeMillis() - 1));
+
+    assertThat(cache.get(KEY, () -> "unused")).isEqualTo("stale");
+    loaded.countDown();
+    awaitRefreshes();
+
+    assertThat(cached(cache)).isEqualTo("fresh");
+  }
+
+  @Test
+  void doesNotOverwriteAPutMadeDuringARefresh() throws Exception {
+    CountDownLatch loaded = new CountDownLatch(1);
+    SingleFlightCache cache = cache(null, refresh(key -> loadedAfter(loaded, "refreshed")));
+    delegate.put(KEY, new CacheEntry("stale", 0, System.currentTimeMillis() - 1));
+
+    assertThat(cache.get(KEY, () -> "unused")).isEqualTo("stale");
+    cache.put(KEY, "updated");
+    loaded.countDown();
+    awaitRefreshes();
+
+    assertThat(cached(cache)).isEqualTo("updated");
+  }
+
+  @Test
+  void doesNotRestoreAnEntryEvictedDuringARefresh() throws Exception {
+    CountDownLatch loaded = new CountDownLatch(1);
+    SingleFlightCache cache = cache(null, refresh(key -> loadedAfter(loaded, "refreshed")));
+    delegate.put(KEY, new CacheEntry("stale", 0, System.currentTimeMillis() - 1));
+
+    assertThat(cache.get(KEY, () -> "unused")).isEqualTo("stale");
+    // Evicted by another node, which this one is not told about
+    delegate.evict(KEY);
+    loaded.countDown();
+    awaitRefreshes();
+
+    assertThat(cache.get(KEY)).isNull();
+  }
+
+  private SingleFlightCache cache(
+      SingleFlightCache.Lease lease, SingleFlightCache.Refresh refresh) {
+    return new SingleFlightCache(
+        delegate, redisTemplate, circuitBreaker, lease, refresh, true, meterRegistry);
+  }
+
+  private static SingleFlightCache.Lease lease(Duration waitTime) {
+    return new SingleFlightCache.Lease(Duration.ofSeconds(5), waitTime);
+  }
+
+  private SingleFlightCache.Refresh refresh(Function<Object, Object> load) {
+    CacheLoader<Object, Object> loader =
+        new CacheLoader<>() {
+          @Override
+          public String cacheName() {
+            return "post";
+          }
+
+          @Override
+          public Object load(Object key) {
+            return load.apply(key);
+          }
+        };
+    return new SingleFlightCache.Refresh(Duration.ofMinutes(1), 1.0, refreshExecutor, loader);
+  }
+
+  /** Returns the value cached for the key, unwrapped from its entry if any. */
+  private static Object cached(Cache cache) {
+    Cache.ValueWrapper cached = cache.get(KEY);
+    assertThat(cached).as("entry of key %s", KEY).isNotNull();
+    return CacheEntry.unwrap(cached.get());
+  }
+
+  private static String loadedAfter(CountDownLatch latch, String value) {
+    try {
+      latch.await();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+    return value;
+  }
+
+  /** Waits until the given number of callers joined a running load. */
+  private void awaitCoalesced(int callers) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.counter("cache.loads.coalesced", "cache", "post").count() < callers) {
+      assertThat(System.nanoTime()).as("callers coalesced in time").isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+
+  private void awaitRefreshes() throws InterruptedException {
+    refreshExecutor.shutdown();
+    assertThat(refreshExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+}
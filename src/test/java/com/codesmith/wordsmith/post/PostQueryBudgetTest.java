@@ -0,0 +1,144 @@
+package com.codesmith.wordsmith.post;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.codesmith.wordsmith.TestContainersConfiguration;
+import com.codesmith.wordsmith.category.Category;
+import com.codesmith.wordsmith.category.CategoryRepository;
+import com.codesmith.wordsmith.query.QueryBudget;
+import com.codesmith.wordsmith.user.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Holds the post reads to their budget of SQL statements: one query for a post or a batch of posts
+ * missing from the cache, none once they are cached.
+ */
+@Import(TestContainersConfiguration.class)
+@SpringBootTest(
+    properties = {"query.guard.response-headers=true", "cache.warm-up.enabled=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PostQueryBudgetTest {
+
+  private static final String PASSWORD = "password123";
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private PostRepository postRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private UserRepository userRepository;
+
+  private String authorization;
+  private List<Long> postIds;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    String username = "budget-" + UUID.randomUUID().toString().substring(0, 8);
+    String email = username + "@example.com";
+    mockMvc
+        .perform(
+            post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"username": "%s", "email": "%s", "password": "%s"}
+                    """
+                        .formatted(username, email, PASSWORD)))
+        .andExpect(status().isCreated());
+    String response =
+        mockMvc
+            .perform(
+                post("/api/auth/authenticate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        """
+                        {"username": "%s", "password": "%s"}
+                        """
+                            .formatted(username, PASSWORD)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    authorization = "Bearer " + JsonPath.read(response, "$.token");
+    // Loads the principal of the token once, so that the reads below are charged for posts alone
+    mockMvc.perform(authorized(get("/api/categories"))).andExpect(status().isOk());
+
+    Long userId = userRepository.findByEmail(email).orElseThrow().getId();
+    Integer categoryId =
+        categoryRepository
+            .save(Category.builder().title("Budget").description("Query budget").build())
+            .getId();
+    // Saved with the repository rather than the API, so that the posts are not cached yet
+    postIds =
+        postRepository
+            .saveAll(
+                IntStream.range(0, 5)
+                    .mapToObj(
+                        i ->
+                            Post.builder()
+                                .title("Post " + i)
+                                .content("Content " + i)
+                                .userId(userId)
+                                .categoryId(categoryId)
+                                .build())
+                    .toList())
+            .stream()
+            .map(Post::getId)
+            .toList();
+  }
+
+  @Test
+  void getsAPostWithOneQueryThenFromTheCache() throws Exception {
+    Long postId = postIds.get(0);
+
+    mockMvc
+        .perform(authorized(get("/api/posts/{postId}", postId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(postId))
+        .andExpect(QueryBudget.statements(1))
+        .andExpect(QueryBudget.noRepeatedStatements());
+
+    mockMvc
+        .perform(authorized(get("/api/posts/{postId}", postId)))
+        .andExpect(status().isOk())
+        .andExpect(QueryBudget.statements(0));
+  }
+
+  @Test
+  void getsPostsByIdsWithOneQueryThenFromTheCache() throws Exception {
+    String ids = postIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+    mockMvc
+        .perform(authorized(get("/api/posts").param("ids", ids)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(postIds.size()))
+        .andExpect(QueryBudget.statements(1))
+        .andExpect(QueryBudget.noRepeatedStatements());
+
+    mockMvc
+        .perform(authorized(get("/api/posts").param("ids", ids)))
+        .andExpect(status().isOk())
+        .andExpect(QueryBudget.statements(0));
+  }
+
+  private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+    return request.header(HttpHeaders.AUTHORIZATION, authorization);
+  }
+}
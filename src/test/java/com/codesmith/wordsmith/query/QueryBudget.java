@@ -0,0 +1,166 @@
+package com.codesmith.wordsmith.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Assertions holding requests to a budget of SQL statements, for integration tests.
+ *
+ * <p>Requests are checked against the headers set by the {@link QueryGuardFilter}, which the test
+ * must enable with {@code query.guard.response-headers=true}. The matchers serve with {@code
+ * MockMvc}:
+ *
+ * <pre>{@code
+ * mockMvc.perform(get("/api/posts/{postId}", postId))
+ *     .andExpect(status().isOk())
+ *     .andExpect(QueryBudget.statements(1))
+ *     .andExpect(QueryBudget.noRepeatedStatements());
+ * }</pre>
+ *
+ * <p>and the other assertions with a {@code TestRestTemplate} or any other HTTP client. Code run
+ * on the test thread, such as a service, is held to a budget with {@link #assertStatements(int,
+ * Runnable)}.
+ */
+public final class QueryBudget {
+
+  private QueryBudget() {}
+
+  /**
+   * Expects a request to run an exact number of statements.
+   *
+   * @param expected the number of statements.
+   * @return the matcher.
+   */
+  public static ResultMatcher statements(int expected) {
+    return result -> assertStatements(headers(result.getResponse()), expected);
+  }
+
+  /**
+   * Expects a request to run at most a number of statements.
+   *
+   * @param maximum the number of statements.
+   * @return the matcher.
+   */
+  public static ResultMatcher atMostStatements(int maximum) {
+    return result -> assertAtMostStatements(headers(result.getResponse()), maximum);
+  }
+
+  /**
+   * Expects a request to run no statement shape repeatedly.
+   *
+   * @return the matcher.
+   */
+  public static ResultMatcher noRepeatedStatements() {
+    return result -> assertNoRepeatedStatements(headers(result.getResponse()));
+  }
+
+  /**
+   * Asserts that a request ran an exact number of statements.
+   *
+   * @param response the response to the request.
+   * @param expected the number of statements.
+   */
+  public static void assertStatements(ResponseEntity<?> response, int expected) {
+    assertStatements(response.getHeaders(), expected);
+  }
+
+  /**
+   * Asserts that a request ran an exact number of statements.
+   *
+   * @param headers the headers of the response to the request.
+   * @param expected the number of statements.
+   */
+  public static void assertStatements(HttpHeaders headers, int expected) {
+    assertEquals(
+        expected,
+        header(headers, QueryGuardFilter.STATEMENTS_HEADER),
+        "Number of SQL statements run by the request");
+  }
+
+  /**
+   * Asserts that a request ran at most a number of statements.
+   *
+   * @param response the response to the request.
+   * @param maximum the number of statements.
+   */
+  public static void assertAtMostStatements(ResponseEntity<?> response, int maximum) {
+    assertAtMostStatements(response.getHeaders(), maximum);
+  }
+
+  /**
+   * Asserts that a request ran at most a number of statements.
+   *
+   * @param headers the headers of the response to the request.
+   * @param maximum the number of statements.
+   */
+  public static void assertAtMostStatements(HttpHeaders headers, int maximum) {
+    int statements = header(headers, QueryGuardFilter.STATEMENTS_HEADER);
+    assertTrue(
+        statements <= maximum,
+        () -> "The request ran " + statements + " SQL statements, over the budget of " + maximum);
+  }
+
+  /**
+   * Asserts that a request ran no statement shape repeatedly.
+   *
+   * @param response the response to the request.
+   */
+  public static void assertNoRepeatedStatements(ResponseEntity<?> response) {
+    assertNoRepeatedStatements(response.getHeaders());
+  }
+
+  /**
+   * Asserts that a request ran no statement shape repeatedly. The shapes are logged by the {@link
+   * QueryGuardFilter}.
+   *
+   * @param headers the headers of the response to the request.
+   */
+  public static void assertNoRepeatedStatements(HttpHeaders headers) {
+    assertEquals(
+        0,
+        header(headers, QueryGuardFilter.REPEATED_HEADER),
+        "Statement shapes run repeatedly by the request, likely N+1 selects, see the log");
+  }
+
+  /**
+   * Asserts that code run on the current thread runs an exact number of statements.
+   *
+   * @param expected the number of statements.
+   * @param action the code to run.
+   * @return the recording of the statements.
+   */
+  public static QueryRecording assertStatements(int expected, Runnable action) {
+    QueryRecording recording = QueryRecording.start();
+    try {
+      action.run();
+    } finally {
+      recording.close();
+    }
+    assertEquals(
+        expected,
+        recording.statementCount(),
+        () -> "Number of SQL statements run, by shape: " + recording.statementsByShape());
+    return recording;
+  }
+
+  private static HttpHeaders headers(MockHttpServletResponse response) {
+    HttpHeaders headers = new HttpHeaders();
+    for (String name : response.getHeaderNames()) {
+      headers.addAll(name, response.getHeaders(name));
+    }
+    return headers;
+  }
+
+  private static int header(HttpHeaders headers, String name) {
+    String value = headers.getFirst(name);
+    assertNotNull(
+        value, () -> "No " + name + " header, is query.guard.response-headers set to true?");
+    return Integer.parseInt(value);
+  }
+}
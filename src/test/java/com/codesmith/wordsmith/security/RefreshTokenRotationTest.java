@@ -0,0 +1,104 @@
+package com.codesmith.wordsmith.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.codesmith.wordsmith.TestContainersConfiguration;
+import com.jayway.jsonpath.JsonPath;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Rotates refresh tokens through the API, and revokes the whole family of a token presented
+ * twice.
+ */
+@Import(TestContainersConfiguration.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RefreshTokenRotationTest {
+
+  private static final String PASSWORD = "password123";
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private RefreshTokenRepository refreshTokenRepository;
+
+  @Test
+  void replayingAUsedTokenRevokesItsFamily() throws Exception {
+    String username = "refresh-" + UUID.randomUUID().toString().substring(0, 8);
+    mockMvc
+        .perform(
+            post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"username": "%s", "email": "%s@example.com", "password": "%s"}
+                    """
+                        .formatted(username, username, PASSWORD)))
+        .andExpect(status().isCreated());
+    String first =
+        refreshToken(
+            mockMvc
+                .perform(
+                    post("/api/auth/authenticate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(
+                            """
+                            {"username": "%s", "password": "%s"}
+                            """
+                                .formatted(username, PASSWORD)))
+                .andExpect(status().isOk()));
+
+    // Each token is exchanged once for an access token and the next token of the family
+    String second = refreshToken(refresh(first).andExpect(status().isOk()));
+    String third = refreshToken(refresh(second).andExpect(status().isOk()));
+    assertThat(second).isNotEqualTo(first);
+    assertThat(third).isNotEqualTo(second);
+    assertThat(tokensOf(username)).isEqualTo(3);
+
+    // The first token is presented again, as by an attacker who stole it
+    refresh(first)
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.message").value("Refresh token has already been used"));
+
+    // The revocation is committed despite the rejection, so the latest token is rejected too
+    assertThat(tokensOf(username)).isZero();
+    refresh(third)
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.message").value("Invalid refresh token"));
+  }
+
+  private ResultActions refresh(String refreshToken) throws Exception {
+    return mockMvc.perform(
+        post("/api/auth/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(
+                """
+                {"refreshToken": "%s"}
+                """
+                    .formatted(refreshToken)));
+  }
+
+  private static String refreshToken(ResultActions result) throws Exception {
+    String token =
+        JsonPath.read(result.andReturn().getResponse().getContentAsString(), "$.refreshToken");
+    assertThat(token).isNotBlank();
+    return token;
+  }
+
+  private long tokensOf(String username) {
+    return refreshTokenRepository.findAll().stream()
+        .filter(token -> token.getUsername().equals(username))
+        .count();
+  }
+}